@@ -44,6 +44,13 @@ public interface Distributor {
         return Objects.requireNonNull(DistributorInstanceHolder.instance, "The API hasn't been initialized yet.");
     }
 
+    /**
+     * Returns whether the global {@link Distributor} instance has been initialized.
+     */
+    static boolean isInitialized() {
+        return DistributorInstanceHolder.instance != null;
+    }
+
     /**
      * Sets the global {@link Distributor} instance.
      *
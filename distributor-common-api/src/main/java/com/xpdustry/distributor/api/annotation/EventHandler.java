@@ -19,6 +19,7 @@
 package com.xpdustry.distributor.api.annotation;
 
 import com.xpdustry.distributor.api.event.EventBus;
+import com.xpdustry.distributor.api.event.EventFilter;
 import com.xpdustry.distributor.api.util.Priority;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
@@ -39,4 +40,13 @@ public @interface EventHandler {
      * The priority of the event handler.
      */
     Priority priority() default Priority.NORMAL;
+
+    /**
+     * The name of a method of the same class providing the filter of the event handler, or an empty string for no
+     * filter. The method can either be a predicate, taking the event as its only parameter and returning a
+     * {@code boolean}, or a method without parameters returning an {@link EventFilter}, called once when the handler
+     * is registered. Prefer the latter with {@link EventFilter#keyed(java.util.function.Function, Object)} for
+     * filters on a shared key, such as the team of a player.
+     */
+    String filter() default "";
 }
@@ -19,10 +19,13 @@
 package com.xpdustry.distributor.api.annotation;
 
 import com.xpdustry.distributor.api.Distributor;
+import com.xpdustry.distributor.api.event.EventFilter;
 import com.xpdustry.distributor.api.event.EventSubscription;
 import com.xpdustry.distributor.api.plugin.MindustryPlugin;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Consumer;
 
@@ -36,6 +39,7 @@ final class EventHandlerProcessor
         this.plugin = plugin;
     }
 
+    @SuppressWarnings("unchecked")
     @Override
     protected EventSubscription process(final Object instance, final Method method, final EventHandler annotation) {
         if (method.getParameterCount() != 1) {
@@ -44,10 +48,46 @@ final class EventHandlerProcessor
         if (!method.canAccess(instance)) {
             method.setAccessible(true);
         }
-        final var handler = new MethodEventHandler<>(instance, method, this.plugin);
-        return Distributor.get()
-                .getEventBus()
-                .subscribe(handler.getEventType(), annotation.priority(), this.plugin, handler);
+        final var event = (Class<Object>) method.getParameterTypes()[0];
+        final Consumer<Object> handler = MethodInvokers.create(
+                instance, method, Consumer.class, handle -> new MethodEventHandler<>(instance, method, handle));
+        if (annotation.filter().isEmpty()) {
+            return Distributor.get().getEventBus().subscribe(event, annotation.priority(), this.plugin, handler);
+        }
+        final var filter = this.getFilter(instance, method, event, annotation.filter());
+        return Distributor.get().getEventBus().subscribe(event, annotation.priority(), this.plugin, filter, handler);
+    }
+
+    @SuppressWarnings("unchecked")
+    private EventFilter<Object> getFilter(
+            final Object instance, final Method handler, final Class<?> event, final String name) {
+        for (final var method : handler.getDeclaringClass().getDeclaredMethods()) {
+            if (!method.getName().equals(name)) {
+                continue;
+            }
+            if (!method.canAccess(instance)) {
+                method.setAccessible(true);
+            }
+            if (method.getParameterCount() == 0 && EventFilter.class.isAssignableFrom(method.getReturnType())) {
+                try {
+                    return (EventFilter<Object>) Objects.requireNonNull(
+                            method.invoke(instance), "The event filter returned by " + method + " is null.");
+                } catch (final ReflectiveOperationException e) {
+                    throw new IllegalArgumentException("Unable to get the event filter from " + method, e);
+                }
+            }
+            if (method.getParameterCount() == 1
+                    && method.getParameterTypes()[0].isAssignableFrom(event)
+                    && method.getReturnType() == boolean.class) {
+                return MethodInvokers.create(
+                        instance,
+                        method,
+                        EventFilter.class,
+                        handle -> new MethodEventFilter<>(instance, method, handle));
+            }
+        }
+        throw new IllegalArgumentException(
+                "The event handler on " + handler + " has no valid filter method named " + name + ".");
     }
 
     @Override
@@ -57,20 +97,31 @@ final class EventHandlerProcessor
                 : Optional.of(() -> results.forEach(EventSubscription::unsubscribe));
     }
 
-    private record MethodEventHandler<E>(Object target, Method method, MindustryPlugin plugin) implements Consumer<E> {
+    private record MethodEventFilter<E>(Object target, Method method, MethodHandle handle) implements EventFilter<E> {
 
         @Override
-        public void accept(final E event) {
+        public boolean test(final E event) {
             try {
-                this.method.invoke(this.target, event);
-            } catch (final ReflectiveOperationException e) {
+                return (boolean) this.handle.invokeExact((Object) event);
+            } catch (final RuntimeException | Error e) {
+                throw e;
+            } catch (final Throwable e) {
                 throw new RuntimeException("Unable to invoke " + this.method + " on " + this.target, e);
             }
         }
+    }
 
-        @SuppressWarnings("unchecked")
-        private Class<E> getEventType() {
-            return (Class<E>) this.method.getParameterTypes()[0];
+    private record MethodEventHandler<E>(Object target, Method method, MethodHandle handle) implements Consumer<E> {
+
+        @Override
+        public void accept(final E event) {
+            try {
+                this.handle.invokeExact((Object) event);
+            } catch (final RuntimeException | Error e) {
+                throw e;
+            } catch (final Throwable e) {
+                throw new RuntimeException("Unable to invoke " + this.method + " on " + this.target, e);
+            }
         }
     }
 }
@@ -0,0 +1,94 @@
+/*
+ * Distributor, a feature-rich framework for Mindustry plugins.
+ *
+ * Copyright (C) 2024 Xpdustry
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.xpdustry.distributor.api.annotation;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.function.Function;
+
+final class MethodInvokers {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private MethodInvokers() {}
+
+    /**
+     * Creates an implementation of a functional interface directly calling the given method, generated with
+     * {@link LambdaMetafactory}. If the access rules forbid it (such as a method declared by a class from another
+     * module or class loader), the fallback is created from a method handle of the method instead.
+     *
+     * @param instance the instance owning the method
+     * @param method   the method, must be accessible
+     * @param type     the functional interface
+     * @param fallback the fallback factory, the method handle is bound to the instance and has the erased type of
+     *                 the functional method
+     * @param <T>      the type of the functional interface
+     * @return the functional interface implementation
+     */
+    static <T> T create(
+            final Object instance,
+            final Method method,
+            final Class<T> type,
+            final Function<MethodHandle, ? extends T> fallback) {
+        final var functional = getFunctionalMethod(type);
+        final var erased = MethodType.methodType(functional.getReturnType(), functional.getParameterTypes());
+        final var bound = !Modifier.isStatic(method.getModifiers());
+
+        try {
+            final var lookup = MethodHandles.privateLookupIn(method.getDeclaringClass(), LOOKUP);
+            if (lookup.hasFullPrivilegeAccess()) {
+                final var handle = lookup.unreflect(method);
+                final var site = LambdaMetafactory.metafactory(
+                        lookup,
+                        functional.getName(),
+                        bound
+                                ? MethodType.methodType(type, method.getDeclaringClass())
+                                : MethodType.methodType(type),
+                        erased,
+                        handle,
+                        bound ? handle.type().dropParameterTypes(0, 1) : handle.type());
+                return type.cast(bound ? site.getTarget().invoke(instance) : site.getTarget().invoke());
+            }
+        } catch (final Throwable ignored) {
+            // The access rules forbid it, use the fallback instead
+        }
+
+        try {
+            var handle = LOOKUP.unreflect(method);
+            if (bound) {
+                handle = handle.bindTo(instance);
+            }
+            return fallback.apply(handle.asType(erased));
+        } catch (final IllegalAccessException e) {
+            throw new IllegalArgumentException("Unable to access " + method, e);
+        }
+    }
+
+    private static Method getFunctionalMethod(final Class<?> type) {
+        return Arrays.stream(type.getMethods())
+                .filter(method -> Modifier.isAbstract(method.getModifiers()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException(type + " is not a functional interface."));
+    }
+}
@@ -20,6 +20,7 @@ package com.xpdustry.distributor.api.annotation;
 
 import com.xpdustry.distributor.api.event.EventSubscription;
 import com.xpdustry.distributor.api.plugin.MindustryPlugin;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Optional;
@@ -53,7 +54,9 @@ final class PlayerActionHandlerProcessor
         if (!method.canAccess(instance)) {
             method.setAccessible(true);
         }
-        final var filter = new MethodActionFilter(instance, method, this.plugin);
+        final var delegate =
+                MethodInvokers.create(instance, method, Administration.ActionFilter.class, HandleActionFilter::new);
+        final var filter = new MethodActionFilter(instance, method, this.plugin, delegate);
         Vars.netServer.admins.addActionFilter(filter);
         return () -> Vars.netServer.admins.actionFilters.remove(filter);
     }
@@ -65,17 +68,32 @@ final class PlayerActionHandlerProcessor
                 : Optional.of(() -> results.forEach(EventSubscription::unsubscribe));
     }
 
-    private record MethodActionFilter(Object target, Method method, MindustryPlugin plugin)
+    private record MethodActionFilter(
+            Object target, Method method, MindustryPlugin plugin, Administration.ActionFilter delegate)
             implements Administration.ActionFilter {
 
         @Override
         public boolean allow(final Administration.PlayerAction action) {
             try {
-                return (boolean) this.method.invoke(this.target, action);
+                return this.delegate.allow(action);
             } catch (final Exception e) {
                 this.plugin.getLogger().error("Failed to invoke {} on {}", this.method, this.target, e);
                 return true;
             }
         }
     }
+
+    private record HandleActionFilter(MethodHandle handle) implements Administration.ActionFilter {
+
+        @Override
+        public boolean allow(final Administration.PlayerAction action) {
+            try {
+                return (boolean) this.handle.invokeExact(action);
+            } catch (final RuntimeException | Error e) {
+                throw e;
+            } catch (final Throwable e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
 }
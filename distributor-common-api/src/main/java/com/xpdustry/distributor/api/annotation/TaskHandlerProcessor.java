@@ -21,7 +21,7 @@ package com.xpdustry.distributor.api.annotation;
 import com.xpdustry.distributor.api.Distributor;
 import com.xpdustry.distributor.api.plugin.MindustryPlugin;
 import com.xpdustry.distributor.api.scheduler.Cancellable;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Optional;
@@ -36,6 +36,7 @@ final class TaskHandlerProcessor extends MethodAnnotationProcessor<TaskHandler,
         this.plugin = plugin;
     }
 
+    @SuppressWarnings("unchecked")
     @Override
     protected Cancellable process(final Object instance, final Method method, final TaskHandler annotation) {
         if (method.getParameterCount() > 1) {
@@ -47,8 +48,11 @@ final class TaskHandlerProcessor extends MethodAnnotationProcessor<TaskHandler,
             method.setAccessible(true);
         }
 
-        final var builder =
-                Distributor.get().getPluginScheduler().schedule(this.plugin).async(annotation.async());
+        final var builder = Distributor.get()
+                .getPluginScheduler()
+                .schedule(this.plugin)
+                .async(annotation.async())
+                .name(method.getDeclaringClass().getName() + "#" + method.getName());
         if (annotation.delay() > -1) {
             builder.delay(annotation.delay(), annotation.unit());
         }
@@ -56,7 +60,15 @@ final class TaskHandlerProcessor extends MethodAnnotationProcessor<TaskHandler,
             builder.repeat(annotation.interval(), annotation.unit());
         }
 
-        return builder.execute(new MethodTaskHandler(instance, method));
+        if (method.getParameterCount() == 1) {
+            final Consumer<Cancellable> handler = MethodInvokers.create(
+                    instance, method, Consumer.class, handle -> new MethodTaskHandler(method, handle));
+            return builder.execute(handler);
+        } else {
+            final Runnable handler = MethodInvokers.create(
+                    instance, method, Runnable.class, handle -> new MethodTaskHandler(method, handle));
+            return builder.execute(handler);
+        }
     }
 
     @Override
@@ -64,17 +76,26 @@ final class TaskHandlerProcessor extends MethodAnnotationProcessor<TaskHandler,
         return results.isEmpty() ? Optional.empty() : Optional.of(() -> results.forEach(Cancellable::cancel));
     }
 
-    private record MethodTaskHandler(Object object, Method method) implements Consumer<Cancellable> {
+    private record MethodTaskHandler(Method method, MethodHandle handle) implements Consumer<Cancellable>, Runnable {
 
         @Override
         public void accept(final Cancellable cancellable) {
             try {
-                if (this.method.getParameterCount() == 1) {
-                    this.method.invoke(this.object, cancellable);
-                } else {
-                    this.method.invoke(this.object);
-                }
-            } catch (final IllegalAccessException | InvocationTargetException e) {
+                this.handle.invokeExact((Object) cancellable);
+            } catch (final RuntimeException | Error e) {
+                throw e;
+            } catch (final Throwable e) {
+                throw new RuntimeException("Unable to invoke " + this.method, e);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                this.handle.invokeExact();
+            } catch (final RuntimeException | Error e) {
+                throw e;
+            } catch (final Throwable e) {
                 throw new RuntimeException("Unable to invoke " + this.method, e);
             }
         }
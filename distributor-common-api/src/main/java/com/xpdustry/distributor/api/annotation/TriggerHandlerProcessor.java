@@ -21,6 +21,7 @@ package com.xpdustry.distributor.api.annotation;
 import com.xpdustry.distributor.api.Distributor;
 import com.xpdustry.distributor.api.event.EventSubscription;
 import com.xpdustry.distributor.api.plugin.MindustryPlugin;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Optional;
@@ -43,7 +44,8 @@ final class TriggerHandlerProcessor
         if (!method.canAccess(instance)) {
             method.setAccessible(true);
         }
-        final var handler = new TriggerMethodEventHandler(instance, method, this.plugin);
+        final var handler = MethodInvokers.create(
+                instance, method, Runnable.class, handle -> new TriggerMethodEventHandler(instance, method, handle));
         return Distributor.get()
                 .getEventBus()
                 .subscribe(annotation.value(), annotation.priority(), this.plugin, handler);
@@ -56,13 +58,15 @@ final class TriggerHandlerProcessor
                 : Optional.of(() -> results.forEach(EventSubscription::unsubscribe));
     }
 
-    private record TriggerMethodEventHandler(Object target, Method method, MindustryPlugin plugin) implements Runnable {
+    private record TriggerMethodEventHandler(Object target, Method method, MethodHandle handle) implements Runnable {
 
         @Override
         public void run() {
             try {
-                this.method.invoke(this.target);
-            } catch (final ReflectiveOperationException e) {
+                this.handle.invokeExact();
+            } catch (final RuntimeException | Error e) {
+                throw e;
+            } catch (final Throwable e) {
                 throw new RuntimeException("Unable to invoke " + this.method + " on " + this.target, e);
             }
         }
@@ -94,4 +94,9 @@ public interface AudienceProvider {
      * @return the team's audience
      */
     Audience getTeam(final Team team);
+
+    /**
+     * Returns a new {@link AudienceQuery} selecting online players by team, locale, permission or metadata.
+     */
+    AudienceQuery query();
 }
@@ -0,0 +1,83 @@
+/*
+ * Distributor, a feature-rich framework for Mindustry plugins.
+ *
+ * Copyright (C) 2024 Xpdustry
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.xpdustry.distributor.api.audience;
+
+import com.xpdustry.distributor.api.key.Key;
+import java.util.Locale;
+import mindustry.game.Team;
+
+/**
+ * A query selecting the online players matching all of its predicates, created with {@link AudienceProvider#query()}.
+ * <pre>{@code
+ *      final Audience admins = Distributor.get().getAudienceProvider().query()
+ *              .team(Team.sharded)
+ *              .locale(Locale.forLanguageTag("ru"))
+ *              .permission("moderation.admin")
+ *              .toAudience();
+ *      admins.sendMessage(Component.text("Hello admins!"));
+ * }</pre>
+ */
+public interface AudienceQuery {
+
+    /**
+     * Only select the players of the given team.
+     *
+     * @param team the team
+     * @return this query
+     */
+    AudienceQuery team(final Team team);
+
+    /**
+     * Only select the players with the given locale.
+     * If the locale has no country, only the language of the players is compared.
+     *
+     * @param locale the locale
+     * @return this query
+     */
+    AudienceQuery locale(final Locale locale);
+
+    /**
+     * Only select the players having the given permission.
+     *
+     * @param permission the permission
+     * @return this query
+     */
+    AudienceQuery permission(final String permission);
+
+    /**
+     * Only select the players having the given value in their metadata.
+     *
+     * @param key   the metadata key
+     * @param value the expected value
+     * @param <V>   the type of the value
+     * @return this query
+     */
+    <V> AudienceQuery key(final Key<V> key, final V value);
+
+    /**
+     * Returns a live audience of the players matching this query.
+     * <p>
+     * The team and locale predicates are resolved with indexes of the audience provider and only re-evaluated when
+     * players join, leave or change team. The permission and metadata predicates are evaluated on every use.
+     * The returned audience can be kept and reused, later changes to this query do not affect it.
+     *
+     * @return the audience of the matching players
+     */
+    Audience toAudience();
+}
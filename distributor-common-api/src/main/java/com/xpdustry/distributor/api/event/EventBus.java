@@ -20,7 +20,10 @@ package com.xpdustry.distributor.api.event;
 
 import com.xpdustry.distributor.api.plugin.MindustryPlugin;
 import com.xpdustry.distributor.api.util.Priority;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
+import java.util.function.Function;
 
 /**
  * The event bus of this server. A better alternative to {@link arc.Events}.
@@ -28,6 +31,9 @@ import java.util.function.Consumer;
  * Event subscribers registered with this class will not crash the server if an exception is thrown but be logged instead.
  * Subscribers also come with {@link EventSubscription} objects to dynamically unsubscribe them. And also
  * {@link Priority} to make sure your subscribers are called in a specific order.
+ * Subscribing and unsubscribing can safely be done from any thread. Since the arc listener lists are only modified on
+ * the main thread, a listener subscribed from another thread may only start receiving the events posted through
+ * {@link arc.Events} on the next tick.
  * <pre> {@code
  *      final EventBus bus = Distributor.get().getEventBus();
  *      final MindustryPlugin plugin = ...;
@@ -68,6 +74,115 @@ public interface EventBus {
         return this.subscribe(event, Priority.NORMAL, plugin, listener);
     }
 
+    /**
+     * Subscribe to an event, the listener is only called if the event is accepted by the filter.
+     *
+     * @param event    the event class to subscribe to
+     * @param priority the priority of the listener
+     * @param plugin   the plugin that owns the listener
+     * @param filter   the filter of the events
+     * @param listener the listener to subscribe
+     * @param <E>      the type of the event
+     * @return the subscription of the subscribed listener
+     * @see EventFilter#keyed(java.util.function.Function, Object)
+     */
+    <E> EventSubscription subscribe(
+            final Class<E> event,
+            final Priority priority,
+            final MindustryPlugin plugin,
+            final EventFilter<? super E> filter,
+            final Consumer<E> listener);
+
+    /**
+     * Subscribe to an event, the listener is only called if the event is accepted by the filter.
+     *
+     * @param event    the event class to subscribe to
+     * @param plugin   the plugin that owns the listener
+     * @param filter   the filter of the events
+     * @param listener the listener to subscribe
+     * @param <E>      the type of the event
+     * @return the subscription of the subscribed listener
+     */
+    default <E> EventSubscription subscribe(
+            final Class<E> event,
+            final MindustryPlugin plugin,
+            final EventFilter<? super E> filter,
+            final Consumer<E> listener) {
+        return this.subscribe(event, Priority.NORMAL, plugin, filter, listener);
+    }
+
+    /**
+     * Subscribe to an event in batches. Instead of being called for each event, the listener receives once per tick,
+     * on the main thread, the list of the events posted since the previous tick, in posting order. Useful for the
+     * high frequency events that only need an aggregated result.
+     *
+     * @param event    the event class to subscribe to
+     * @param priority the priority of the buffering listener
+     * @param plugin   the plugin that owns the listener
+     * @param listener the listener to subscribe
+     * @param <E>      the type of the event
+     * @return the subscription of the subscribed listener
+     */
+    <E> EventSubscription subscribeBatched(
+            final Class<E> event,
+            final Priority priority,
+            final MindustryPlugin plugin,
+            final Consumer<List<E>> listener);
+
+    /**
+     * Subscribe to an event in batches.
+     *
+     * @param event    the event class to subscribe to
+     * @param plugin   the plugin that owns the listener
+     * @param listener the listener to subscribe
+     * @param <E>      the type of the event
+     * @return the subscription of the subscribed listener
+     * @see #subscribeBatched(Class, Priority, MindustryPlugin, Consumer)
+     */
+    default <E> EventSubscription subscribeBatched(
+            final Class<E> event, final MindustryPlugin plugin, final Consumer<List<E>> listener) {
+        return this.subscribeBatched(event, Priority.NORMAL, plugin, listener);
+    }
+
+    /**
+     * Subscribe to an event in coalesced batches. Like {@link #subscribeBatched(Class, Priority, MindustryPlugin,
+     * Consumer)}, but the events of a tick sharing the same key are coalesced, only the last one is kept, at the
+     * position of the first one.
+     *
+     * @param event    the event class to subscribe to
+     * @param priority the priority of the buffering listener
+     * @param plugin   the plugin that owns the listener
+     * @param key      the function extracting the coalescing key from the event
+     * @param listener the listener to subscribe
+     * @param <E>      the type of the event
+     * @return the subscription of the subscribed listener
+     */
+    <E> EventSubscription subscribeCoalesced(
+            final Class<E> event,
+            final Priority priority,
+            final MindustryPlugin plugin,
+            final Function<? super E, ?> key,
+            final Consumer<List<E>> listener);
+
+    /**
+     * Subscribe to an event in coalesced batches.
+     *
+     * @param event    the event class to subscribe to
+     * @param plugin   the plugin that owns the listener
+     * @param key      the function extracting the coalescing key from the event
+     * @param listener the listener to subscribe
+     * @param <E>      the type of the event
+     * @return the subscription of the subscribed listener
+     * @see #subscribeCoalesced(Class, Priority, MindustryPlugin, Function, Consumer)
+     */
+    default <E> EventSubscription subscribeCoalesced(
+            final Class<E> event,
+            final MindustryPlugin plugin,
+            final Function<? super E, ?> key,
+            final Consumer<List<E>> listener) {
+        return this.subscribeCoalesced(event, Priority.NORMAL, plugin, key, listener);
+    }
+
     /**
      * Subscribe to an event.
      *
@@ -95,8 +210,19 @@ public interface EventBus {
         return this.subscribe(event, Priority.NORMAL, plugin, listener);
     }
 
+    /**
+     * Unsubscribes all the listeners owned by the given plugin and removes the metrics collected for them.
+     * Called automatically when a plugin exits.
+     *
+     * @param plugin the plugin owning the listeners
+     */
+    void unsubscribeAll(final MindustryPlugin plugin);
+
     /**
      * Posts the event to the arc event bus.
+     * <br>
+     * If polymorphic dispatch is enabled, the listeners of the super classes and interfaces of the event are also
+     * called, according to their priority.
      *
      * @param event the event to post
      * @param <E>   the type of the event
@@ -119,4 +245,86 @@ public interface EventBus {
      * @param <E>   the type of the enum event
      */
     <E extends Enum<E>> void post(final E event);
+
+    /**
+     * Posts the event asynchronously to the listeners of this event bus. The listeners are still called one by one,
+     * according to their priority, but the event can be delivered in parallel with the other events.
+     * <br>
+     * Since arc listeners expect to be called on the main thread, the listeners registered directly through
+     * {@link arc.Events} do not receive asynchronous events.
+     * <br>
+     * <b>Warning:</b> Every listener of this bus subscribed to the event is called on a worker thread, including the
+     * ones only safe on the main thread. Only post asynchronously the events of your own plugin, whose listeners are
+     * known to be thread-safe, never the Mindustry events such as {@code EventType.PlayerJoin}.
+     *
+     * @param event the event to post
+     * @param <E>   the type of the event
+     * @return a future completed once all the listeners have been called
+     * @see #postAsyncOrdered(Object, Object)
+     */
+    <E> CompletableFuture<Void> postAsync(final E event);
+
+    /**
+     * Posts the event asynchronously to the listeners of this event bus subscribed to the given super class.
+     *
+     * @param clazz the class of the event
+     * @param event the event to post
+     * @param <E>   the type of the event
+     * @return a future completed once all the listeners have been called
+     * @see #postAsync(Object)
+     */
+    <E> CompletableFuture<Void> postAsync(final Class<? super E> clazz, final E event);
+
+    /**
+     * Posts the enum event asynchronously to the listeners of this event bus.
+     *
+     * @param event the enum event to post
+     * @param <E>   the type of the enum event
+     * @return a future completed once all the listeners have been called
+     * @see #postAsync(Object)
+     */
+    <E extends Enum<E>> CompletableFuture<Void> postAsync(final E event);
+
+    /**
+     * Posts the event asynchronously to the listeners of this event bus, after all the previous ordered events
+     * posted with the same ordering key, whatever their type. Useful for events that must not be reordered, such as
+     * the creation and deletion events of an account defined by your plugin:
+     * <pre> {@code
+     *      bus.postAsyncOrdered(account.getId(), new AccountCreatedEvent(account));
+     *      bus.postAsyncOrdered(account.getId(), new AccountDeletedEvent(account));
+     * } </pre>
+     * The listeners are called on a worker thread, see {@link #postAsync(Object)}.
+     *
+     * @param key   the ordering key, compared with {@link Object#equals(Object)}
+     * @param event the event to post
+     * @param <E>   the type of the event
+     * @return a future completed once all the listeners have been called
+     * @see #postAsync(Object)
+     */
+    <E> CompletableFuture<Void> postAsyncOrdered(final Object key, final E event);
+
+    /**
+     * Posts the event asynchronously to the listeners of this event bus subscribed to the given super class, after
+     * all the previous ordered events posted with the same ordering key.
+     *
+     * @param key   the ordering key, compared with {@link Object#equals(Object)}
+     * @param clazz the class of the event
+     * @param event the event to post
+     * @param <E>   the type of the event
+     * @return a future completed once all the listeners have been called
+     * @see #postAsyncOrdered(Object, Object)
+     */
+    <E> CompletableFuture<Void> postAsyncOrdered(final Object key, final Class<? super E> clazz, final E event);
+
+    /**
+     * Posts the enum event asynchronously to the listeners of this event bus, after all the previous ordered events
+     * posted with the same ordering key.
+     *
+     * @param key   the ordering key, compared with {@link Object#equals(Object)}
+     * @param event the enum event to post
+     * @param <E>   the type of the enum event
+     * @return a future completed once all the listeners have been called
+     * @see #postAsyncOrdered(Object, Object)
+     */
+    <E extends Enum<E>> CompletableFuture<Void> postAsyncOrdered(final Object key, final E event);
 }
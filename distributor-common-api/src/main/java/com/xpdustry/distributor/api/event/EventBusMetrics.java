@@ -0,0 +1,61 @@
+/*
+ * Distributor, a feature-rich framework for Mindustry plugins.
+ *
+ * Copyright (C) 2024 Xpdustry
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.xpdustry.distributor.api.event;
+
+import com.xpdustry.distributor.api.plugin.MindustryPlugin;
+import java.util.List;
+
+/**
+ * Collects the execution metrics of the listeners subscribed to the {@link EventBus}.
+ * Available as a service in the {@link com.xpdustry.distributor.api.service.ServiceManager}.
+ * <br>
+ * The collection is disabled by default, and does not affect the listeners while disabled.
+ */
+public interface EventBusMetrics {
+
+    /**
+     * Returns whether the metrics are being collected.
+     */
+    boolean isEnabled();
+
+    /**
+     * Sets whether the metrics are being collected.
+     *
+     * @param enabled whether the metrics should be collected
+     */
+    void setEnabled(final boolean enabled);
+
+    /**
+     * Returns a snapshot of the collected metrics, sorted by descending total execution time.
+     */
+    List<EventListenerMetrics> getListenerMetrics();
+
+    /**
+     * Resets the collected metrics.
+     */
+    void reset();
+
+    /**
+     * Removes the metrics collected for the listeners of the given plugin.
+     * Called by {@link EventBus#unsubscribeAll(MindustryPlugin)}.
+     *
+     * @param plugin the plugin
+     */
+    void reset(final MindustryPlugin plugin);
+}
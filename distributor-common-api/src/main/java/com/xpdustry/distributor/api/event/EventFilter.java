@@ -0,0 +1,94 @@
+/*
+ * Distributor, a feature-rich framework for Mindustry plugins.
+ *
+ * Copyright (C) 2024 Xpdustry
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.xpdustry.distributor.api.event;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * A filter evaluated before an event is passed to its listener, skipping the listener if the event is rejected.
+ *
+ * @param <E> the type of the event
+ */
+@FunctionalInterface
+public interface EventFilter<E> {
+
+    /**
+     * Creates a filter from a predicate.
+     *
+     * @param predicate the predicate to test the events with
+     * @param <E>       the type of the event
+     * @return the filter
+     */
+    static <E> EventFilter<E> of(final Predicate<? super E> predicate) {
+        return predicate::test;
+    }
+
+    /**
+     * Creates a filter accepting the events whose key is equal to the given value.
+     * <br>
+     * The listeners of an event sharing the same key function are grouped by value, meaning the key is only extracted
+     * once per event and the listeners of the other values are skipped without being tested. To benefit from it,
+     * store the key function in a constant, such as {@code static final Function<UnitDestroyEvent, Team> UNIT_TEAM
+     * = event -> event.unit.team()}.
+     *
+     * @param key   the function extracting the key from the event
+     * @param value the value of the key the event must have
+     * @param <E>   the type of the event
+     * @param <K>   the type of the key
+     * @return the filter
+     */
+    static <E, K> Keyed<E, K> keyed(final Function<? super E, ? extends @Nullable K> key, final @Nullable K value) {
+        return new KeyedEventFilterImpl<>(key, value);
+    }
+
+    /**
+     * Tests the given event.
+     *
+     * @param event the event to test
+     * @return whether the listener should be called
+     */
+    boolean test(final E event);
+
+    /**
+     * A filter accepting the events whose key is equal to a given value.
+     *
+     * @param <E> the type of the event
+     * @param <K> the type of the key
+     */
+    interface Keyed<E, K> extends EventFilter<E> {
+
+        /**
+         * Returns the function extracting the key from the event.
+         */
+        Function<? super E, ? extends @Nullable K> getKey();
+
+        /**
+         * Returns the value of the key the accepted events must have.
+         */
+        @Nullable K getValue();
+
+        @Override
+        default boolean test(final E event) {
+            return Objects.equals(this.getKey().apply(event), this.getValue());
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Distributor, a feature-rich framework for Mindustry plugins.
+ *
+ * Copyright (C) 2024 Xpdustry
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.xpdustry.distributor.api.event;
+
+import com.xpdustry.distributor.api.plugin.MindustryPlugin;
+import com.xpdustry.distributor.api.util.Priority;
+import com.xpdustry.distributor.internal.annotation.DistributorDataClass;
+import java.time.Duration;
+import org.immutables.value.Value;
+
+/**
+ * The execution metrics of the listeners of a plugin, for a given event and priority.
+ */
+@DistributorDataClass
+@Value.Immutable
+public interface EventListenerMetrics {
+
+    /**
+     * Creates a new {@code EventListenerMetrics} instance.
+     *
+     * @param plugin          the plugin owning the listeners
+     * @param event           the event class or enum the listeners are subscribed to
+     * @param priority        the priority of the listeners
+     * @param invocationCount the number of times the listeners have been called
+     * @param totalTime       the cumulative execution time of the listeners
+     * @param maxTime         the longest execution time of a listener
+     * @param exceptionCount  the number of exceptions thrown by the listeners
+     * @return the created metrics
+     */
+    static EventListenerMetrics of(
+            final MindustryPlugin plugin,
+            final Object event,
+            final Priority priority,
+            final long invocationCount,
+            final Duration totalTime,
+            final Duration maxTime,
+            final long exceptionCount) {
+        return EventListenerMetricsImpl.of(
+                plugin, event, priority, invocationCount, totalTime, maxTime, exceptionCount);
+    }
+
+    /**
+     * Returns the plugin owning the listeners.
+     */
+    MindustryPlugin getPlugin();
+
+    /**
+     * Returns the event class or enum the listeners are subscribed to.
+     */
+    Object getEvent();
+
+    /**
+     * Returns the priority of the listeners.
+     */
+    Priority getPriority();
+
+    /**
+     * Returns the number of times the listeners have been called.
+     */
+    long getInvocationCount();
+
+    /**
+     * Returns the cumulative execution time of the listeners.
+     */
+    Duration getTotalTime();
+
+    /**
+     * Returns the longest execution time of a listener.
+     */
+    Duration getMaxTime();
+
+    /**
+     * Returns the number of exceptions thrown by the listeners.
+     */
+    long getExceptionCount();
+}
@@ -23,6 +23,8 @@ import arc.Core;
 import arc.files.Fi;
 import arc.struct.Seq;
 import arc.util.CommandHandler;
+import com.xpdustry.distributor.api.Distributor;
+import com.xpdustry.distributor.api.scheduler.PluginSchedulerMetrics;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.util.ArrayList;
@@ -175,6 +177,14 @@ public abstract class AbstractMindustryPlugin extends Plugin implements Mindustr
                                 .setCause(throwable)
                                 .log();
                     }
+                    // Releases the references the event bus and the scheduler metrics hold to the disposed plugin
+                    if (Distributor.isInitialized()) {
+                        Distributor.get().getEventBus().unsubscribeAll(plugin);
+                        Distributor.get()
+                                .getServiceManager()
+                                .provide(PluginSchedulerMetrics.class)
+                                .ifPresent(metrics -> metrics.reset(plugin));
+                    }
                 }
             });
         }
@@ -0,0 +1,71 @@
+/*
+ * Distributor, a feature-rich framework for Mindustry plugins.
+ *
+ * Copyright (C) 2024 Xpdustry
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.xpdustry.distributor.api.scheduler;
+
+import com.xpdustry.distributor.internal.annotation.DistributorDataClass;
+import java.time.Duration;
+import org.immutables.value.Value;
+
+/**
+ * A snapshot of a distribution of durations. The percentiles are approximated within a few percents.
+ */
+@DistributorDataClass
+@Value.Immutable
+public interface LatencyMetrics {
+
+    /**
+     * Creates a new {@code LatencyMetrics} instance.
+     *
+     * @param count  the number of recorded durations
+     * @param total  the sum of the recorded durations
+     * @param median the median of the recorded durations
+     * @param p99    the 99th percentile of the recorded durations
+     * @param max    the longest recorded duration
+     * @return the created metrics
+     */
+    static LatencyMetrics of(
+            final long count, final Duration total, final Duration median, final Duration p99, final Duration max) {
+        return LatencyMetricsImpl.of(count, total, median, p99, max);
+    }
+
+    /**
+     * Returns the number of recorded durations.
+     */
+    long getCount();
+
+    /**
+     * Returns the sum of the recorded durations.
+     */
+    Duration getTotal();
+
+    /**
+     * Returns the median of the recorded durations.
+     */
+    Duration getMedian();
+
+    /**
+     * Returns the 99th percentile of the recorded durations.
+     */
+    Duration getP99();
+
+    /**
+     * Returns the longest recorded duration.
+     */
+    Duration getMax();
+}
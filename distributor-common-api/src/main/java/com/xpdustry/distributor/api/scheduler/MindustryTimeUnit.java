@@ -55,7 +55,16 @@ public enum MindustryTimeUnit {
     /**
      * Time unit representing twenty-four hours.
      */
-    DAYS(TimeUnit.DAYS);
+    DAYS(TimeUnit.DAYS),
+
+    /**
+     * Time unit representing one thousandth of a microsecond.
+     */
+    NANOSECONDS(TimeUnit.NANOSECONDS);
+
+    // A tick lasts exactly 50_000_000 / 3 nanoseconds
+    private static final long TICK_NANOS_NUMERATOR = 50_000_000L;
+    private static final long TICK_NANOS_DENOMINATOR = 3L;
 
     private final @Nullable TimeUnit unit;
 
@@ -88,10 +97,19 @@ public enum MindustryTimeUnit {
         if (sourceJavaUnit.isPresent() && targetJavaUnit.isPresent()) {
             return targetJavaUnit.get().convert(sourceDuration, sourceJavaUnit.get());
         } else if (sourceJavaUnit.isEmpty()) {
+            if (Math.abs(sourceDuration) <= Long.MAX_VALUE / TICK_NANOS_NUMERATOR) {
+                final var nanos = sourceDuration * TICK_NANOS_NUMERATOR / TICK_NANOS_DENOMINATOR;
+                return targetJavaUnit.orElseThrow().convert(nanos, TimeUnit.NANOSECONDS);
+            }
             return targetJavaUnit
                     .orElseThrow()
                     .convert((long) Math.nextUp(sourceDuration * (1000F / 60F)), TimeUnit.MILLISECONDS);
         } else {
+            final var nanos = TimeUnit.NANOSECONDS.convert(sourceDuration, sourceJavaUnit.orElseThrow());
+            if (nanos != Long.MAX_VALUE && nanos != Long.MIN_VALUE) {
+                return nanos / TICK_NANOS_NUMERATOR * TICK_NANOS_DENOMINATOR
+                        + nanos % TICK_NANOS_NUMERATOR * TICK_NANOS_DENOMINATOR / TICK_NANOS_NUMERATOR;
+            }
             final var millis = TimeUnit.MILLISECONDS.convert(sourceDuration, sourceJavaUnit.orElseThrow());
             if (millis == Long.MAX_VALUE || millis == Long.MIN_VALUE) {
                 return millis;
@@ -0,0 +1,37 @@
+/*
+ * Distributor, a feature-rich framework for Mindustry plugins.
+ *
+ * Copyright (C) 2024 Xpdustry
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.xpdustry.distributor.api.scheduler;
+
+/**
+ * The policy of a {@link PluginTask} repeating at a fixed rate, applied when it runs late enough to miss executions,
+ * such as when the server lags.
+ */
+public enum MissedRunPolicy {
+
+    /**
+     * The missed executions are run as soon as possible, one after the other, so the number of executions matches the
+     * elapsed time. Past a limit of missed executions in a row, the oldest ones are skipped like with {@link #SKIP}.
+     */
+    CATCH_UP,
+
+    /**
+     * The missed executions are skipped, the next execution staying aligned with the original cadence.
+     */
+    SKIP
+}
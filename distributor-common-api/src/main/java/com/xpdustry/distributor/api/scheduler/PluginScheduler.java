@@ -19,6 +19,12 @@
 package com.xpdustry.distributor.api.scheduler;
 
 import com.xpdustry.distributor.api.plugin.MindustryPlugin;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
 
 /**
  * A {@code PluginScheduler} is used to schedule tasks for a plugin. A better alternative to {@link arc.util.Timer}.
@@ -32,4 +38,43 @@ public interface PluginScheduler {
      * @return a new {@link PluginTask.Builder} instance.
      */
     PluginTask.Builder schedule(final MindustryPlugin plugin);
+
+    /**
+     * Collects the given elements in parallel on the worker pool of this scheduler, splitting them into one
+     * asynchronous task per worker thread, then completes the returned stage with the result on the main thread.
+     * The tasks count towards the asynchronous limit of the plugin, and the chunks are combined in encounter order.
+     * The tasks are identified by the calling class in the {@link PluginSchedulerMetrics}.
+     *
+     * <pre> {@code
+     *      final List<Player> players = MindustryCollections.immutableList(Groups.player);
+     *      scheduler.parallelCollect(plugin, players, Collectors.toMap(player -> player, this::computePath))
+     *              .thenAccept(paths -> paths.forEach(this::applyPath));
+     * } </pre>
+     *
+     * @param plugin    the plugin collecting the elements.
+     * @param elements  the elements to collect.
+     * @param collector the collector reducing the elements, its functions being called concurrently.
+     * @return a stage completed on the main thread with the result of the collector.
+     */
+    <E, R> CompletionStage<R> parallelCollect(
+            final MindustryPlugin plugin,
+            final Collection<? extends E> elements,
+            final Collector<? super E, ?, R> collector);
+
+    /**
+     * Maps the given elements in parallel on the worker pool of this scheduler, then completes the returned stage with
+     * the results on the main thread, in the iteration order of the elements.
+     *
+     * @param plugin   the plugin mapping the elements.
+     * @param elements the elements to map.
+     * @param mapper   the function mapping each element, must be thread-safe.
+     * @return a stage completed on the main thread with the mapped elements.
+     * @see #parallelCollect(MindustryPlugin, Collection, Collector)
+     */
+    default <E, R> CompletionStage<List<R>> parallelMap(
+            final MindustryPlugin plugin,
+            final Collection<? extends E> elements,
+            final Function<? super E, ? extends R> mapper) {
+        return this.parallelCollect(plugin, elements, Collectors.mapping(mapper, Collectors.toList()));
+    }
 }
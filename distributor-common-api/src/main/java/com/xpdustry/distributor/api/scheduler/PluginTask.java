@@ -21,8 +21,10 @@ package com.xpdustry.distributor.api.scheduler;
 import com.xpdustry.distributor.api.plugin.PluginAware;
 import java.time.Duration;
 import java.time.temporal.TemporalAmount;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Future;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
@@ -45,6 +47,87 @@ public interface PluginTask<V> extends Future<V>, Cancellable, PluginAware {
         this.cancel(false);
     }
 
+    /**
+     * Returns a {@link CompletionStage} view of this task, completed with the result of this task.
+     * If this task is periodic, the stage is only completed when the task is cancelled or fails.
+     */
+    CompletionStage<V> toCompletionStage();
+
+    /**
+     * Applies the given function to the result of this task on the main thread once completed.
+     * The function is run in place if this task completes on the main thread.
+     *
+     * <pre> {@code
+     *      scheduler.schedule(plugin)
+     *              .async(true)
+     *              .execute(() -> database.loadProfile(uuid))
+     *              .thenApplySync(profile -> applyProfile(player, profile));
+     * } </pre>
+     *
+     * @param function the function to apply.
+     * @return a new stage completed with the output of the function.
+     */
+    <R> CompletionStage<R> thenApplySync(final Function<? super V, ? extends R> function);
+
+    /**
+     * Applies the given function to the result of this task asynchronously once completed.
+     * The function is run in place if this task completes on a worker thread of the scheduler.
+     *
+     * @param function the function to apply.
+     * @return a new stage completed with the output of the function.
+     */
+    <R> CompletionStage<R> thenApplyAsync(final Function<? super V, ? extends R> function);
+
+    /**
+     * Runs the given consumer with the result of this task on the main thread once completed.
+     *
+     * @param consumer the consumer to run.
+     * @return a new stage completed once the consumer is run.
+     * @see #thenApplySync(Function)
+     */
+    default CompletionStage<Void> thenAcceptSync(final Consumer<? super V> consumer) {
+        return this.thenApplySync(value -> {
+            consumer.accept(value);
+            return null;
+        });
+    }
+
+    /**
+     * Runs the given consumer with the result of this task asynchronously once completed.
+     *
+     * @param consumer the consumer to run.
+     * @return a new stage completed once the consumer is run.
+     * @see #thenApplyAsync(Function)
+     */
+    default CompletionStage<Void> thenAcceptAsync(final Consumer<? super V> consumer) {
+        return this.thenApplyAsync(value -> {
+            consumer.accept(value);
+            return null;
+        });
+    }
+
+    /**
+     * Runs the given action on the main thread once this task is completed.
+     *
+     * @param runnable the action to run.
+     * @return a new stage completed once the action is run.
+     * @see #thenApplySync(Function)
+     */
+    default CompletionStage<Void> thenRunSync(final Runnable runnable) {
+        return this.thenAcceptSync(value -> runnable.run());
+    }
+
+    /**
+     * Runs the given action asynchronously once this task is completed.
+     *
+     * @param runnable the action to run.
+     * @return a new stage completed once the action is run.
+     * @see #thenApplyAsync(Function)
+     */
+    default CompletionStage<Void> thenRunAsync(final Runnable runnable) {
+        return this.thenAcceptAsync(value -> runnable.run());
+    }
+
     /**
      * A helper object for building and scheduling a {@link PluginTask}.
      *
@@ -67,6 +150,25 @@ public interface PluginTask<V> extends Future<V>, Cancellable, PluginAware {
          */
         Builder async(final boolean async);
 
+        /**
+         * Set whether the task runs on a virtual thread if asynchronous, well suited for blocking operations such as
+         * database or network calls. Falls back to the worker pool if virtual threads are not supported by the JVM.
+         * Defaults to the mode of the scheduler.
+         *
+         * @param virtual whether the task should run on a virtual thread.
+         * @return this builder.
+         */
+        Builder virtual(final boolean virtual);
+
+        /**
+         * Set the name of the task, identifying it in the {@link PluginSchedulerMetrics}.
+         * Defaults to the class scheduling the task.
+         *
+         * @param name the name of the task.
+         * @return this builder.
+         */
+        Builder name(final String name);
+
         /**
          * Run the task after a delay.
          *
@@ -109,6 +211,54 @@ public interface PluginTask<V> extends Future<V>, Cancellable, PluginAware {
             return this.repeat(duration.toMillis(), MindustryTimeUnit.MILLISECONDS);
         }
 
+        /**
+         * Run the task periodically at a fixed rate, each execution being scheduled relatively to the previous
+         * scheduled execution time instead of its end, so the cadence doesn't drift when the task runs late.
+         * Stops the periodic execution if an exception is thrown.
+         *
+         * @param interval the interval between the start of two executions.
+         * @param unit     the time unit of the interval.
+         * @param policy   the policy applied to the executions missed because the task ran late.
+         * @return this builder.
+         */
+        Builder repeatAtFixedRate(final long interval, final MindustryTimeUnit unit, final MissedRunPolicy policy);
+
+        /**
+         * Run the task periodically at a fixed rate, catching up the missed executions.
+         *
+         * @param interval the interval between the start of two executions.
+         * @param unit     the time unit of the interval.
+         * @return this builder.
+         * @see #repeatAtFixedRate(long, MindustryTimeUnit, MissedRunPolicy)
+         */
+        default Builder repeatAtFixedRate(final long interval, final MindustryTimeUnit unit) {
+            return this.repeatAtFixedRate(interval, unit, MissedRunPolicy.CATCH_UP);
+        }
+
+        /**
+         * Run the task periodically at a fixed rate.
+         *
+         * @param interval the interval between the start of two executions.
+         * @param policy   the policy applied to the executions missed because the task ran late.
+         * @return this builder.
+         * @see #repeatAtFixedRate(long, MindustryTimeUnit, MissedRunPolicy)
+         */
+        default Builder repeatAtFixedRate(final TemporalAmount interval, final MissedRunPolicy policy) {
+            final var duration = Duration.from(interval);
+            return this.repeatAtFixedRate(duration.toMillis(), MindustryTimeUnit.MILLISECONDS, policy);
+        }
+
+        /**
+         * Run the task periodically at a fixed rate, catching up the missed executions.
+         *
+         * @param interval the interval between the start of two executions.
+         * @return this builder.
+         * @see #repeatAtFixedRate(long, MindustryTimeUnit, MissedRunPolicy)
+         */
+        default Builder repeatAtFixedRate(final TemporalAmount interval) {
+            return this.repeatAtFixedRate(interval, MissedRunPolicy.CATCH_UP);
+        }
+
         /**
          * Build and schedule the task with the given task.
          *
@@ -0,0 +1,83 @@
+/*
+ * Distributor, a feature-rich framework for Mindustry plugins.
+ *
+ * Copyright (C) 2024 Xpdustry
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.xpdustry.distributor.api.scheduler;
+
+import com.xpdustry.distributor.api.plugin.MindustryPlugin;
+import com.xpdustry.distributor.internal.annotation.DistributorDataClass;
+import org.immutables.value.Value;
+
+/**
+ * The execution metrics of the tasks of a plugin, for a given origin and execution mode.
+ */
+@DistributorDataClass
+@Value.Immutable
+public interface PluginTaskMetrics {
+
+    /**
+     * Creates a new {@code PluginTaskMetrics} instance.
+     *
+     * @param plugin         the plugin owning the tasks
+     * @param origin         the origin of the tasks
+     * @param async          whether the tasks are executed asynchronously
+     * @param executionTime  the distribution of the execution time of the tasks
+     * @param schedulingLag  the distribution of the delay between the scheduled and actual start of the tasks
+     * @param exceptionCount the number of exceptions thrown by the tasks
+     * @return the created metrics
+     */
+    static PluginTaskMetrics of(
+            final MindustryPlugin plugin,
+            final String origin,
+            final boolean async,
+            final LatencyMetrics executionTime,
+            final LatencyMetrics schedulingLag,
+            final long exceptionCount) {
+        return PluginTaskMetricsImpl.of(plugin, origin, async, executionTime, schedulingLag, exceptionCount);
+    }
+
+    /**
+     * Returns the plugin owning the tasks.
+     */
+    MindustryPlugin getPlugin();
+
+    /**
+     * Returns the origin of the tasks, either the name given with {@link PluginTask.Builder#name(String)},
+     * the {@link com.xpdustry.distributor.api.annotation.TaskHandler} method or the class scheduling the tasks.
+     */
+    String getOrigin();
+
+    /**
+     * Returns whether the tasks are executed asynchronously.
+     */
+    boolean isAsync();
+
+    /**
+     * Returns the distribution of the execution time of the tasks.
+     */
+    LatencyMetrics getExecutionTime();
+
+    /**
+     * Returns the distribution of the delay between the scheduled start of the tasks and their actual start.
+     */
+    LatencyMetrics getSchedulingLag();
+
+    /**
+     * Returns the number of exceptions thrown by the tasks.
+     */
+    long getExceptionCount();
+}
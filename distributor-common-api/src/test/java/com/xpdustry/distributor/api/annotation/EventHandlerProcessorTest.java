@@ -21,6 +21,7 @@ package com.xpdustry.distributor.api.annotation;
 import arc.Events;
 import com.xpdustry.distributor.api.Distributor;
 import com.xpdustry.distributor.api.event.EventBus;
+import com.xpdustry.distributor.api.event.EventFilter;
 import com.xpdustry.distributor.api.scheduler.PluginScheduler;
 import com.xpdustry.distributor.api.test.ManageScheduler;
 import com.xpdustry.distributor.api.test.TestPlugin;
@@ -81,6 +82,21 @@ public final class EventHandlerProcessorTest {
         assertThat(instance.numbers).containsExactly(1, 2, 3);
     }
 
+    @Test
+    void test_filter() {
+        final var instance = new TestFilter();
+        this.processor.process(instance);
+        this.events.post(new TestEvent("a"));
+        this.events.post(new TestEvent("b"));
+        assertThat(instance.messages).containsExactly("a", "a", "b");
+    }
+
+    @Test
+    void test_missing_filter() {
+        assertThatThrownBy(() -> this.processor.process(new TestMissingFilter()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     void test_no_parameter() {
         assertThatThrownBy(() -> this.processor.process(new TestNoParameter()))
@@ -126,6 +142,35 @@ public final class EventHandlerProcessorTest {
         }
     }
 
+    private static final class TestFilter {
+
+        public final List<String> messages = new ArrayList<>();
+
+        @EventHandler(priority = Priority.HIGH, filter = "isA")
+        public void event1(final TestEvent event) {
+            this.messages.add(event.message());
+        }
+
+        @EventHandler(filter = "getFilter")
+        public void event2(final TestEvent event) {
+            this.messages.add(event.message());
+        }
+
+        public boolean isA(final TestEvent event) {
+            return event.message().equals("a");
+        }
+
+        public EventFilter<TestEvent> getFilter() {
+            return EventFilter.of(event -> true);
+        }
+    }
+
+    private static final class TestMissingFilter {
+
+        @EventHandler(filter = "missing")
+        public void event(final TestEvent event) {}
+    }
+
     private static final class TestNoParameter {
 
         @EventHandler
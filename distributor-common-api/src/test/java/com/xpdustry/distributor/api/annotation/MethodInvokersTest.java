@@ -0,0 +1,106 @@
+/*
+ * Distributor, a feature-rich framework for Mindustry plugins.
+ *
+ * Copyright (C) 2024 Xpdustry
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.xpdustry.distributor.api.annotation;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class MethodInvokersTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void test_same_class_loader() throws ReflectiveOperationException {
+        final var instance = new TestHandler();
+        final Consumer<Object> handler = MethodInvokers.create(
+                instance, TestHandler.class.getMethod("handle", String.class), Consumer.class, handle -> {
+                    throw new AssertionError("The fallback should not be used.");
+                });
+        handler.accept("hello");
+        assertThat(instance.events).containsExactly("hello");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void test_separate_class_loader() throws ReflectiveOperationException {
+        final var type = new IsolatingClassLoader(TestHandler.class).loadClass(TestHandler.class.getName());
+        assertThat(type).isNotSameAs(TestHandler.class);
+        final var instance = type.getConstructor().newInstance();
+        final var fallbacks = new AtomicInteger();
+        final Consumer<Object> handler = MethodInvokers.create(
+                instance, type.getMethod("handle", String.class), Consumer.class, handle -> {
+                    fallbacks.incrementAndGet();
+                    return event -> {
+                        try {
+                            handle.invokeExact(event);
+                        } catch (final Throwable e) {
+                            throw new RuntimeException(e);
+                        }
+                    };
+                });
+        handler.accept("hello");
+        assertThat(fallbacks).hasValue(1);
+        assertThat(type.getField("events").get(instance)).isEqualTo(List.of("hello"));
+    }
+
+    public static final class TestHandler {
+
+        public final List<Object> events = new ArrayList<>();
+
+        public void handle(final String event) {
+            this.events.add(event);
+        }
+    }
+
+    // Defines its own copy of the isolated class, like a plugin class loader would
+    private static final class IsolatingClassLoader extends ClassLoader {
+
+        private final Class<?> isolated;
+
+        private IsolatingClassLoader(final Class<?> isolated) {
+            super(isolated.getClassLoader());
+            this.isolated = isolated;
+        }
+
+        @Override
+        protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(this.isolated.getName())) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (this.getClassLoadingLock(name)) {
+                final var loaded = this.findLoadedClass(name);
+                if (loaded != null) {
+                    return loaded;
+                }
+                try (final var stream = this.getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                    final var bytes = Objects.requireNonNull(stream).readAllBytes();
+                    return this.defineClass(name, bytes, 0, bytes.length);
+                } catch (final IOException e) {
+                    throw new ClassNotFoundException(name, e);
+                }
+            }
+        }
+    }
+}
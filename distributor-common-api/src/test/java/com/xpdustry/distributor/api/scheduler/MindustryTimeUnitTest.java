@@ -59,6 +59,15 @@ public final class MindustryTimeUnitTest {
 
         assertThat(MindustryTimeUnit.SECONDS.convert(120L, MindustryTimeUnit.TICKS))
                 .isEqualTo(2L);
+
+        assertThat(MindustryTimeUnit.NANOSECONDS.convert(3L, MindustryTimeUnit.TICKS))
+                .isEqualTo(50_000_000L);
+
+        assertThat(MindustryTimeUnit.TICKS.convert(16_666_667L, MindustryTimeUnit.NANOSECONDS))
+                .isEqualTo(1L);
+
+        assertThat(MindustryTimeUnit.TICKS.convert(16L, MindustryTimeUnit.MILLISECONDS))
+                .isEqualTo(0L);
     }
 
     @Test
@@ -0,0 +1,79 @@
+/*
+ * Distributor, a feature-rich framework for Mindustry plugins.
+ *
+ * Copyright (C) 2024 Xpdustry
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.xpdustry.distributor.common;
+
+import mindustry.net.Administration;
+
+/**
+ * The server settings of distributor, editable with the {@code config} server command.
+ */
+public final class DistributorCommonConfig {
+
+    public static final Administration.Config POLYMORPHIC_EVENTS = new Administration.Config(
+            "distributorPolymorphicEvents",
+            "Whether posted events are also dispatched to the listeners of their super types. Requires a restart.",
+            false);
+
+    public static final Administration.Config SCHEDULER_TIMING_WHEEL = new Administration.Config(
+            "distributorSchedulerTimingWheel",
+            "Whether the plugin scheduler uses a timing wheel instead of a heap to store its tasks, "
+                    + "better suited for a large amount of tasks. Requires a restart.",
+            false);
+
+    public static final Administration.Config SCHEDULER_EAGER_REMOVAL = new Administration.Config(
+            "distributorSchedulerEagerRemoval",
+            "Whether the cancelled tasks of the plugin scheduler are immediately removed instead of lingering until "
+                    + "their execution time. Only worth it with the timing wheel, removal from the heap being linear. "
+                    + "Requires a restart.",
+            false);
+
+    public static final Administration.Config SCHEDULER_VIRTUAL_THREADS = new Administration.Config(
+            "distributorSchedulerVirtualThreads",
+            "Whether the asynchronous tasks of the plugin scheduler run on virtual threads by default, "
+                    + "if supported by the JVM. Requires a restart.",
+            false);
+
+    public static final Administration.Config SCHEDULER_SYNC_BUDGET = new Administration.Config(
+            "distributorSchedulerSyncBudget",
+            "The maximum time in microseconds spent per tick running the synchronous tasks of the plugin scheduler, "
+                    + "the remaining ones are delayed to the next tick. 0 for no limit. Requires a restart.",
+            0);
+
+    public static final Administration.Config SCHEDULER_MONOTONIC_TIME = new Administration.Config(
+            "distributorSchedulerMonotonicTime",
+            "Whether the plugin scheduler uses the monotonic system clock with a nanosecond precision instead of "
+                    + "the game time, which may drift from the real time when the server lags. Asynchronous tasks are "
+                    + "then also started between ticks, with a millisecond precision. Requires a restart.",
+            false);
+
+    public static final Administration.Config SCHEDULER_ASYNC_LIMIT = new Administration.Config(
+            "distributorSchedulerAsyncLimit",
+            "The maximum number of asynchronous tasks of the plugin scheduler running at once per plugin, "
+                    + "0 for no limit. Requires a restart.",
+            0);
+
+    public static final Administration.Config SCHEDULER_PLUGIN_WEIGHTS = new Administration.Config(
+            "distributorSchedulerPluginWeights",
+            "The share of the worker threads of the plugin scheduler given to each plugin when contended, "
+                    + "as a comma separated list of plugin-name=weight, the default weight being 1. "
+                    + "Requires a restart.",
+            "");
+
+    private DistributorCommonConfig() {}
+}
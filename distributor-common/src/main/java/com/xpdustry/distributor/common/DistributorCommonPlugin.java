@@ -24,10 +24,13 @@ import com.xpdustry.distributor.api.audience.AudienceProvider;
 import com.xpdustry.distributor.api.component.codec.ComponentDecoder;
 import com.xpdustry.distributor.api.component.render.ComponentRendererProvider;
 import com.xpdustry.distributor.api.event.EventBus;
+import com.xpdustry.distributor.api.event.EventBusMetrics;
 import com.xpdustry.distributor.api.permission.PlayerPermissionProvider;
 import com.xpdustry.distributor.api.player.PlayerLookup;
 import com.xpdustry.distributor.api.plugin.AbstractMindustryPlugin;
+import com.xpdustry.distributor.api.plugin.MindustryPlugin;
 import com.xpdustry.distributor.api.scheduler.PluginScheduler;
+import com.xpdustry.distributor.api.scheduler.PluginSchedulerMetrics;
 import com.xpdustry.distributor.api.service.ServiceManager;
 import com.xpdustry.distributor.api.translation.BundleTranslationSource;
 import com.xpdustry.distributor.api.translation.ResourceBundles;
@@ -39,24 +42,32 @@ import com.xpdustry.distributor.common.component.render.ServiceComponentRenderer
 import com.xpdustry.distributor.common.component.render.StandardComponentRendererProvider;
 import com.xpdustry.distributor.common.event.EventBusImpl;
 import com.xpdustry.distributor.common.scheduler.PluginSchedulerImpl;
+import com.xpdustry.distributor.common.scheduler.PluginTaskQueue;
 import com.xpdustry.distributor.common.scheduler.PluginTimeSource;
 import com.xpdustry.distributor.common.service.ServiceManagerImpl;
 import com.xpdustry.distributor.common.translation.ServiceTranslationSource;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.concurrent.TimeUnit;
 import org.jspecify.annotations.Nullable;
 
 public final class DistributorCommonPlugin extends AbstractMindustryPlugin implements Distributor {
 
     private final ServiceManager services = new ServiceManagerImpl();
     private final TranslationSource source = new ServiceTranslationSource(this.services);
-    private final EventBus events = new EventBusImpl();
-    private final PluginScheduler scheduler = new PluginSchedulerImpl(
-            PluginTimeSource.mindustry(), Core.app::post, Runtime.getRuntime().availableProcessors());
+    private final PluginSchedulerImpl scheduler = new PluginSchedulerImpl(
+            DistributorCommonConfig.SCHEDULER_MONOTONIC_TIME.bool()
+                    ? PluginTimeSource.monotonic()
+                    : PluginTimeSource.mindustry(),
+            Core.app::post,
+            Runtime.getRuntime().availableProcessors(),
+            this.getSchedulerOptions());
+    private final EventBusImpl events = new EventBusImpl(
+            DistributorCommonConfig.POLYMORPHIC_EVENTS.bool(), this.scheduler.getAsyncExecutor(this));
     private final ComponentRendererProvider componentRendererProvider =
             new ServiceComponentRendererProvider(this.services);
     private final ComponentDecoder<String> mindustryComponentDecoder = MindustryDecoderImpl.INSTANCE;
-    private final AudienceProvider audienceProvider = new AudienceProviderImpl(this, this.events);
+    private final AudienceProviderImpl audienceProvider = new AudienceProviderImpl(this, this.events);
     private @Nullable PlayerLookup lookup = null;
     private @Nullable PlayerPermissionProvider permissions = null;
 
@@ -109,7 +120,11 @@ public final class DistributorCommonPlugin extends AbstractMindustryPlugin imple
     public void onInit() {
         this.getLogger().info("Loading distributor common api");
         Distributor.set(this);
-        this.addListener((PluginSchedulerImpl) this.scheduler);
+        this.addListener(this.scheduler);
+        this.addListener(this.events);
+        this.addListener(this.audienceProvider);
+        this.services.register(this, EventBusMetrics.class, this.events.getMetrics());
+        this.services.register(this, PluginSchedulerMetrics.class, this.scheduler.getMetrics());
         this.services.register(this, ComponentRendererProvider.class, new StandardComponentRendererProvider());
         this.services.register(this, TranslationSource.class, TranslationSource.router(), Priority.HIGH);
         final var mindustry = BundleTranslationSource.create(Locale.ENGLISH);
@@ -126,6 +141,37 @@ public final class DistributorCommonPlugin extends AbstractMindustryPlugin imple
         this.getLogger().info("Loaded distributor common api");
     }
 
+    private PluginSchedulerImpl.Options getSchedulerOptions() {
+        return PluginSchedulerImpl.Options.defaults()
+                .withQueue(
+                        DistributorCommonConfig.SCHEDULER_TIMING_WHEEL.bool()
+                                ? PluginTaskQueue.timingWheel()
+                                : PluginTaskQueue.heap())
+                .withEagerRemoval(DistributorCommonConfig.SCHEDULER_EAGER_REMOVAL.bool())
+                .withVirtualThreads(DistributorCommonConfig.SCHEDULER_VIRTUAL_THREADS.bool())
+                .withSyncBudget(TimeUnit.MICROSECONDS.toNanos(DistributorCommonConfig.SCHEDULER_SYNC_BUDGET.num()))
+                .withAsyncLimit(DistributorCommonConfig.SCHEDULER_ASYNC_LIMIT.num())
+                .withWeights(this::getSchedulerWeight)
+                .withTimerPeriod(
+                        DistributorCommonConfig.SCHEDULER_MONOTONIC_TIME.bool()
+                                ? TimeUnit.MILLISECONDS.toNanos(1L)
+                                : 0L);
+    }
+
+    private int getSchedulerWeight(final MindustryPlugin plugin) {
+        for (final var entry : DistributorCommonConfig.SCHEDULER_PLUGIN_WEIGHTS.string().split(",")) {
+            final var parts = entry.split("=", 2);
+            if (parts.length == 2 && parts[0].trim().equals(plugin.getMetadata().getName())) {
+                try {
+                    return Integer.parseInt(parts[1].trim());
+                } catch (final NumberFormatException e) {
+                    this.getLogger().error("Invalid scheduler weight {} for plugin {}.", parts[1], parts[0]);
+                }
+            }
+        }
+        return 1;
+    }
+
     private <T> T ensureInitialized(final @Nullable T instance, final String name) {
         return Objects.requireNonNull(instance, String.format("The \"%s\" subsystem is not initialized yet.", name));
     }
@@ -19,9 +19,10 @@
 package com.xpdustry.distributor.common.audience;
 
 import arc.struct.IntMap;
+import arc.util.CommandHandler;
 import com.xpdustry.distributor.api.audience.Audience;
 import com.xpdustry.distributor.api.audience.AudienceProvider;
-import com.xpdustry.distributor.api.audience.ForwardingAudience;
+import com.xpdustry.distributor.api.audience.AudienceQuery;
 import com.xpdustry.distributor.api.audience.PlayerAudience;
 import com.xpdustry.distributor.api.component.style.ComponentColor;
 import com.xpdustry.distributor.api.event.EventBus;
@@ -30,23 +31,45 @@ import com.xpdustry.distributor.api.key.KeyContainer;
 import com.xpdustry.distributor.api.key.StandardKeys;
 import com.xpdustry.distributor.api.player.MUUID;
 import com.xpdustry.distributor.api.plugin.MindustryPlugin;
+import com.xpdustry.distributor.api.plugin.PluginListener;
 import com.xpdustry.distributor.api.util.Priority;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Objects;
-import java.util.WeakHashMap;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import mindustry.game.EventType;
 import mindustry.game.Team;
 import mindustry.gen.Player;
 import mindustry.net.NetConnection;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-public final class AudienceProviderImpl implements AudienceProvider {
+public final class AudienceProviderImpl implements AudienceProvider, PluginListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AudienceProviderImpl.class);
 
     private final Map<MUUID, Audience> players = new ConcurrentHashMap<>();
+    // The server does not allow two players with the same uuid to be connected at the same time
+    private final Map<String, Audience> uuids = new ConcurrentHashMap<>();
     // Using int map in case a smart guy tries to override default teams
     private final IntMap<TeamAudience> teams = new IntMap<>();
-    private final Map<NetConnection, NetConnectionMetadata> connections = new WeakHashMap<>();
+    // Net connections do not override equals and hashCode, so they are keyed by identity
+    private final Map<NetConnection, CachedMetadata> connections = new ConcurrentHashMap<>();
+    // Only accessed from the main thread
+    private final Map<MUUID, TeamAudience> memberships = new HashMap<>();
+    // The language each player is indexed under, since the locale of the player may have changed when it leaves
+    private final Map<MUUID, String> indexedLanguages = new HashMap<>();
+    private final Map<String, Set<Audience>> languages = new ConcurrentHashMap<>();
+    // Incremented each time a player joins, leaves or changes team, for the queries to know when to update
+    private final AtomicInteger version = new AtomicInteger();
 
     public AudienceProviderImpl(final MindustryPlugin plugin, final EventBus bus) {
         for (int i = 0; i < Team.all.length; i++) {
@@ -56,17 +79,68 @@ public final class AudienceProviderImpl implements AudienceProvider {
                 EventType.PlayerJoin.class,
                 Priority.HIGHEST,
                 plugin,
-                event -> this.players.put(MUUID.from(event.player), new PlayerAudienceImpl(event.player)));
-        bus.subscribe(
-                EventType.PlayerLeave.class,
-                Priority.LOWEST,
-                plugin,
-                event -> this.players.remove(MUUID.from(event.player)));
+                event -> {
+                    final var muuid = MUUID.from(event.player);
+                    final var audience = new PlayerAudienceImpl(event.player);
+                    this.players.put(muuid, audience);
+                    this.uuids.put(muuid.getUuid(), audience);
+                    final var language = getLanguage(audience);
+                    this.indexedLanguages.put(muuid, language);
+                    this.languages
+                            .computeIfAbsent(language, key -> ConcurrentHashMap.newKeySet())
+                            .add(audience);
+                    this.updateMembership(muuid, audience);
+                    this.version.incrementAndGet();
+                    // The connection is represented by the player audience from now on
+                    this.removeConnection(event.player.con());
+                });
+        bus.subscribe(EventType.PlayerLeave.class, Priority.LOWEST, plugin, event -> {
+            final var muuid = MUUID.from(event.player);
+            final var audience = this.players.remove(muuid);
+            if (audience != null) this.uuids.remove(muuid.getUuid(), audience);
+            final var team = this.memberships.remove(muuid);
+            if (audience != null && team != null) team.remove(audience);
+            final var language = this.indexedLanguages.remove(muuid);
+            if (audience != null && language != null) {
+                final var audiences = this.languages.get(language);
+                if (audiences != null) audiences.remove(audience);
+            }
+            if (audience != null) this.version.incrementAndGet();
+            this.removeConnection(event.player.con());
+        });
+        // Mindustry does not have a team change event, so we check for changes every tick.
+        // Same for connections closed before the player joins, which do not fire any event.
+        bus.subscribe(EventType.Trigger.update, Priority.HIGHEST, plugin, () -> {
+            for (final var entry : this.players.entrySet()) {
+                this.updateMembership(entry.getKey(), entry.getValue());
+            }
+            if (!this.connections.isEmpty()) {
+                this.connections.keySet().removeIf(connection -> !connection.isConnected());
+            }
+        });
         bus.subscribe(
                 EventType.ConnectPacketEvent.class,
                 Priority.HIGHEST,
                 plugin,
-                event -> this.connections.putIfAbsent(event.connection, NetConnectionMetadata.from(event.packet)));
+                event -> this.connections.computeIfAbsent(event.connection, connection -> {
+                    final var metadata = NetConnectionMetadata.from(event.packet);
+                    return new CachedMetadata(metadata, metadata.toKeyContainer());
+                }));
+    }
+
+    @Override
+    public void onPluginServerCommandsRegistration(final CommandHandler handler) {
+        handler.register(
+                "audiences",
+                "Show the number of players and pending connections tracked by the audience provider.",
+                args -> LOGGER.info(
+                        "Audience provider: players={}, pending-connections={}",
+                        this.players.size(),
+                        this.getConnectionCount()));
+    }
+
+    public int getConnectionCount() {
+        return this.connections.size();
     }
 
     @Override
@@ -81,10 +155,7 @@ public final class AudienceProviderImpl implements AudienceProvider {
 
     @Override
     public Audience getPlayer(final String uuid) {
-        return this.players.entrySet().stream()
-                .filter(e -> e.getKey().getUuid().equals(uuid))
-                .map(Map.Entry::getValue)
-                .collect(Audience.collectToAudience());
+        return this.uuids.getOrDefault(uuid, Audience.empty());
     }
 
     @Override
@@ -97,7 +168,7 @@ public final class AudienceProviderImpl implements AudienceProvider {
     public Audience getConnection(final NetConnection connection) {
         final var player = connection.player;
         if (player != null) return this.getPlayer(player);
-        return new NetConnectionAudienceImpl(connection, this.connections::get);
+        return new NetConnectionAudienceImpl(connection, this::getConnectionMetadata);
     }
 
     @Override
@@ -107,7 +178,12 @@ public final class AudienceProviderImpl implements AudienceProvider {
 
     @Override
     public Audience getPlayers() {
-        return Audience.of(Collections.unmodifiableCollection(this.players.values()));
+        return BroadcastAudience.of(Collections.unmodifiableCollection(this.players.values()));
+    }
+
+    @Override
+    public AudienceQuery query() {
+        return new AudienceQueryImpl(this);
     }
 
     @Override
@@ -117,10 +193,72 @@ public final class AudienceProviderImpl implements AudienceProvider {
         return audience;
     }
 
-    private final class TeamAudience implements ForwardingAudience {
+    private void removeConnection(final @Nullable NetConnection connection) {
+        if (connection != null) this.connections.remove(connection);
+    }
+
+    private KeyContainer getConnectionMetadata(final NetConnection connection) {
+        final var cached = this.connections.get(connection);
+        return cached != null ? cached.container() : KeyContainer.empty();
+    }
+
+    private void updateMembership(final MUUID muuid, final Audience audience) {
+        if (!(audience instanceof PlayerAudience player)) return;
+        final var current = this.memberships.get(muuid);
+        final var next = this.teams.get(player.getPlayer().team().id);
+        if (current == next) return;
+        if (current != null) current.remove(audience);
+        if (next != null) {
+            next.add(audience);
+            this.memberships.put(muuid, next);
+        } else {
+            this.memberships.remove(muuid);
+        }
+        this.version.incrementAndGet();
+    }
+
+    int getMembershipVersion() {
+        return this.version.get();
+    }
+
+    List<Audience> select(final @Nullable Team team, final @Nullable Locale locale) {
+        final Collection<Audience> candidates;
+        if (team != null) {
+            final var audience = this.teams.get(team.id);
+            candidates = audience != null ? audience.snapshot : List.of();
+        } else if (locale != null) {
+            candidates = this.languages.getOrDefault(locale.getLanguage(), Set.of());
+        } else {
+            candidates = this.players.values();
+        }
+        final List<Audience> result = new ArrayList<>(candidates.size());
+        for (final var audience : candidates) {
+            if (locale == null || matches(audience, locale)) result.add(audience);
+        }
+        return result;
+    }
+
+    private static boolean matches(final Audience audience, final Locale locale) {
+        final var other = audience.getMetadata().getOptional(StandardKeys.LOCALE);
+        if (other.isEmpty()) return false;
+        return locale.getCountry().isEmpty()
+                ? locale.getLanguage().equals(other.get().getLanguage())
+                : locale.equals(other.get());
+    }
+
+    private static String getLanguage(final Audience audience) {
+        return audience.getMetadata()
+                .getOptional(StandardKeys.LOCALE)
+                .map(Locale::getLanguage)
+                .orElse("");
+    }
+
+    private static final class TeamAudience implements BroadcastAudience {
 
         private final int id;
         private final KeyContainer metadata;
+        private final Set<Audience> members = new LinkedHashSet<>();
+        private volatile List<Audience> snapshot = List.of();
 
         private TeamAudience(final int id) {
             this.id = id;
@@ -137,12 +275,21 @@ public final class AudienceProviderImpl implements AudienceProvider {
 
         @Override
         public Iterable<Audience> getAudiences() {
-            return AudienceProviderImpl.this
-                    .getPlayers()
-                    .toStream()
-                    .filter(a -> Objects.equals(
-                            a.getMetadata().getOptional(StandardKeys.TEAM).orElse(null), Team.get(this.id)))
-                    .toList();
+            return this.snapshot;
+        }
+
+        private void add(final Audience audience) {
+            if (this.members.add(audience)) {
+                this.snapshot = List.copyOf(this.members);
+            }
+        }
+
+        private void remove(final Audience audience) {
+            if (this.members.remove(audience)) {
+                this.snapshot = List.copyOf(this.members);
+            }
         }
     }
+
+    private record CachedMetadata(NetConnectionMetadata metadata, KeyContainer container) {}
 }
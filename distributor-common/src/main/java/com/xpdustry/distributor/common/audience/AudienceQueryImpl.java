@@ -0,0 +1,132 @@
+/*
+ * Distributor, a feature-rich framework for Mindustry plugins.
+ *
+ * Copyright (C) 2024 Xpdustry
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.xpdustry.distributor.common.audience;
+
+import com.xpdustry.distributor.api.audience.Audience;
+import com.xpdustry.distributor.api.audience.AudienceQuery;
+import com.xpdustry.distributor.api.key.Key;
+import com.xpdustry.distributor.api.permission.PermissionContainer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import mindustry.game.Team;
+import org.jspecify.annotations.Nullable;
+
+final class AudienceQueryImpl implements AudienceQuery {
+
+    private final AudienceProviderImpl provider;
+    private @Nullable Team team = null;
+    private @Nullable Locale locale = null;
+    private final List<String> permissions = new ArrayList<>();
+    private final Map<Key<?>, Object> keys = new HashMap<>();
+
+    AudienceQueryImpl(final AudienceProviderImpl provider) {
+        this.provider = provider;
+    }
+
+    @Override
+    public AudienceQuery team(final Team team) {
+        this.team = team;
+        return this;
+    }
+
+    @Override
+    public AudienceQuery locale(final Locale locale) {
+        this.locale = locale;
+        return this;
+    }
+
+    @Override
+    public AudienceQuery permission(final String permission) {
+        if (!PermissionContainer.isValidPermission(permission)) {
+            throw new IllegalArgumentException("Invalid permission: " + permission);
+        }
+        this.permissions.add(permission);
+        return this;
+    }
+
+    @Override
+    public <V> AudienceQuery key(final Key<V> key, final V value) {
+        this.keys.put(key, value);
+        return this;
+    }
+
+    @Override
+    public Audience toAudience() {
+        return new QueryAudience(
+                this.provider, this.team, this.locale, List.copyOf(this.permissions), Map.copyOf(this.keys));
+    }
+
+    private static final class QueryAudience implements BroadcastAudience {
+
+        private final AudienceProviderImpl provider;
+        private final @Nullable Team team;
+        private final @Nullable Locale locale;
+        private final List<String> permissions;
+        private final Map<Key<?>, Object> keys;
+        private volatile @Nullable Selection selection = null;
+
+        private QueryAudience(
+                final AudienceProviderImpl provider,
+                final @Nullable Team team,
+                final @Nullable Locale locale,
+                final List<String> permissions,
+                final Map<Key<?>, Object> keys) {
+            this.provider = provider;
+            this.team = team;
+            this.locale = locale;
+            this.permissions = permissions;
+            this.keys = keys;
+        }
+
+        @Override
+        public Iterable<Audience> getAudiences() {
+            final var version = this.provider.getMembershipVersion();
+            var selection = this.selection;
+            if (selection == null || selection.version() != version) {
+                selection = new Selection(version, this.provider.select(this.team, this.locale));
+                this.selection = selection;
+            }
+            if (this.permissions.isEmpty() && this.keys.isEmpty()) {
+                return selection.audiences();
+            }
+            final List<Audience> result = new ArrayList<>();
+            for (final var audience : selection.audiences()) {
+                if (this.matches(audience)) result.add(audience);
+            }
+            return result;
+        }
+
+        private boolean matches(final Audience audience) {
+            for (final var permission : this.permissions) {
+                if (!audience.getPermissions().getPermission(permission).asBoolean()) return false;
+            }
+            for (final var entry : this.keys.entrySet()) {
+                final var value = audience.getMetadata().getOptional(entry.getKey()).orElse(null);
+                if (!Objects.equals(value, entry.getValue())) return false;
+            }
+            return true;
+        }
+    }
+
+    private record Selection(int version, List<Audience> audiences) {}
+}
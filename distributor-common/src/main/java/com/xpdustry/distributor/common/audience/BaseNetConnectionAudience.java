@@ -27,6 +27,7 @@ import java.net.URI;
 import java.time.Duration;
 import mindustry.Vars;
 import mindustry.gen.Call;
+import mindustry.gen.Player;
 import mindustry.net.NetConnection;
 import mindustry.net.Packets;
 import org.jspecify.annotations.Nullable;
@@ -46,26 +47,25 @@ public class BaseNetConnectionAudience implements Audience {
 
     @Override
     public void sendMessage(final Component component) {
-        Call.sendMessage(this.connection, this.render(component), null, null);
+        this.sendMessage(this.render(component));
     }
 
     @Override
     public void sendMessage(final Component component, final Component unformatted, final Audience sender) {
-        if (sender instanceof PlayerAudience other) {
-            Call.sendMessage(this.connection, this.render(component), this.render(unformatted), other.getPlayer());
-        } else {
-            Call.sendMessage(this.connection, this.render(component), this.render(unformatted), null);
-        }
+        this.sendMessage(
+                this.render(component),
+                this.render(unformatted),
+                sender instanceof PlayerAudience other ? other.getPlayer() : null);
     }
 
     @Override
     public void sendWarning(final Component component) {
-        Call.announce(this.connection, this.render(component));
+        this.sendWarning(this.render(component));
     }
 
     @Override
     public void showHUDText(final Component component) {
-        Call.setHudText(this.connection, this.render(component));
+        this.showHUDText(this.render(component));
     }
 
     @Override
@@ -75,12 +75,12 @@ public class BaseNetConnectionAudience implements Audience {
 
     @Override
     public void sendNotification(final Component component, final char icon) {
-        Call.warningToast(this.connection, icon, this.render(component));
+        this.sendNotification(this.render(component), icon);
     }
 
     @Override
     public void sendAnnouncement(final Component component) {
-        Call.infoMessage(this.connection, this.render(component));
+        this.sendAnnouncement(this.render(component));
     }
 
     @Override
@@ -90,7 +90,7 @@ public class BaseNetConnectionAudience implements Audience {
 
     @Override
     public void showLabel(final Component label, final float x, final float y, final Duration duration) {
-        Call.label(this.connection, this.render(label), duration.toMillis() / 1000F, x, y);
+        this.showLabel(this.render(label), x, y, duration);
     }
 
     @Override
@@ -135,6 +135,34 @@ public class BaseNetConnectionAudience implements Audience {
         this.connection.kicked = true;
     }
 
+    void sendMessage(final String message) {
+        Call.sendMessage(this.connection, message, null, null);
+    }
+
+    void sendMessage(final String message, final String unformatted, final @Nullable Player sender) {
+        Call.sendMessage(this.connection, message, unformatted, sender);
+    }
+
+    void sendWarning(final String message) {
+        Call.announce(this.connection, message);
+    }
+
+    void showHUDText(final String message) {
+        Call.setHudText(this.connection, message);
+    }
+
+    void sendNotification(final String message, final char icon) {
+        Call.warningToast(this.connection, icon, message);
+    }
+
+    void sendAnnouncement(final String message) {
+        Call.infoMessage(this.connection, message);
+    }
+
+    void showLabel(final String label, final float x, final float y, final Duration duration) {
+        Call.label(this.connection, label, duration.toMillis() / 1000F, x, y);
+    }
+
     protected String render(final Component component) {
         return ComponentStringBuilder.mindustry(this.getMetadata())
                 .append(component)
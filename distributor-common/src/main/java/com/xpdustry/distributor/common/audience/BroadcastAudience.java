@@ -0,0 +1,105 @@
+/*
+ * Distributor, a feature-rich framework for Mindustry plugins.
+ *
+ * Copyright (C) 2024 Xpdustry
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.xpdustry.distributor.common.audience;
+
+import com.xpdustry.distributor.api.audience.Audience;
+import com.xpdustry.distributor.api.audience.ForwardingAudience;
+import com.xpdustry.distributor.api.audience.PlayerAudience;
+import com.xpdustry.distributor.api.component.Component;
+import java.time.Duration;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * A forwarding audience that renders each component once per locale for its net connection audiences,
+ * instead of once per audience.
+ */
+interface BroadcastAudience extends ForwardingAudience {
+
+    static Audience of(final Iterable<Audience> audiences) {
+        return (BroadcastAudience) () -> audiences;
+    }
+
+    @Override
+    default void sendMessage(final Component component) {
+        this.broadcast(component, BaseNetConnectionAudience::sendMessage, audience -> audience.sendMessage(component));
+    }
+
+    @Override
+    default void sendMessage(final Component component, final Component unformatted, final Audience sender) {
+        final var renderer = new BroadcastRenderer(unformatted);
+        final var player = sender instanceof PlayerAudience other ? other.getPlayer() : null;
+        this.broadcast(
+                component,
+                (connection, message) -> connection.sendMessage(message, renderer.render(connection), player),
+                audience -> audience.sendMessage(component, unformatted, sender));
+    }
+
+    @Override
+    default void sendWarning(final Component component) {
+        this.broadcast(component, BaseNetConnectionAudience::sendWarning, audience -> audience.sendWarning(component));
+    }
+
+    @Override
+    default void showHUDText(final Component component) {
+        this.broadcast(component, BaseNetConnectionAudience::showHUDText, audience -> audience.showHUDText(component));
+    }
+
+    @Override
+    default void sendNotification(final Component component, final char icon) {
+        this.broadcast(
+                component,
+                (connection, message) -> connection.sendNotification(message, icon),
+                audience -> audience.sendNotification(component, icon));
+    }
+
+    @Override
+    default void sendAnnouncement(final Component component) {
+        this.broadcast(
+                component,
+                BaseNetConnectionAudience::sendAnnouncement,
+                audience -> audience.sendAnnouncement(component));
+    }
+
+    @Override
+    default void showLabel(final Component label, final float x, final float y, final Duration duration) {
+        this.broadcast(
+                label,
+                (connection, message) -> connection.showLabel(message, x, y, duration),
+                audience -> audience.showLabel(label, x, y, duration));
+    }
+
+    /**
+     * Sends the component rendered for each net connection audience with the given sender,
+     * the other audiences rendering it themselves in the given fallback.
+     */
+    private void broadcast(
+            final Component component,
+            final BiConsumer<BaseNetConnectionAudience, String> sender,
+            final Consumer<Audience> fallback) {
+        final var renderer = new BroadcastRenderer(component);
+        for (final var audience : this.getAudiences()) {
+            if (audience instanceof BaseNetConnectionAudience connection) {
+                sender.accept(connection, renderer.render(connection));
+            } else {
+                fallback.accept(audience);
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Distributor, a feature-rich framework for Mindustry plugins.
+ *
+ * Copyright (C) 2024 Xpdustry
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.xpdustry.distributor.common.audience;
+
+import com.xpdustry.distributor.api.component.Component;
+import com.xpdustry.distributor.api.component.render.ComponentStringBuilder;
+import com.xpdustry.distributor.api.key.Key;
+import com.xpdustry.distributor.api.key.KeyContainer;
+import com.xpdustry.distributor.api.key.StandardKeys;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Renders a component once per locale for the net connection audiences of a broadcast.
+ * If the rendering reads any other metadata than the locale, it falls back to rendering per audience.
+ */
+final class BroadcastRenderer {
+
+    private final Component component;
+    private final Map<@Nullable Locale, String> cache = new HashMap<>();
+    private boolean localized = true;
+
+    BroadcastRenderer(final Component component) {
+        this.component = component;
+    }
+
+    String render(final BaseNetConnectionAudience audience) {
+        if (!this.localized) {
+            return audience.render(this.component);
+        }
+        final var metadata = audience.getMetadata();
+        final var locale = metadata.getOptional(StandardKeys.LOCALE).orElse(null);
+        final var cached = this.cache.get(locale);
+        if (cached != null) {
+            return cached;
+        }
+        final var context = new TrackingKeyContainer(metadata);
+        final var rendered = ComponentStringBuilder.mindustry(context).append(this.component).toString();
+        if (context.localized) {
+            this.cache.put(locale, rendered);
+        } else {
+            this.localized = false;
+        }
+        return rendered;
+    }
+
+    private static final class TrackingKeyContainer implements KeyContainer {
+
+        private final KeyContainer delegate;
+        private boolean localized = true;
+
+        private TrackingKeyContainer(final KeyContainer delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public <V> Optional<V> getOptional(final Key<V> key) {
+            this.track(key);
+            return this.delegate.getOptional(key);
+        }
+
+        @Override
+        public boolean contains(final Key<?> key) {
+            this.track(key);
+            return this.delegate.contains(key);
+        }
+
+        @Override
+        public Set<Key<?>> getKeys() {
+            this.localized = false;
+            return this.delegate.getKeys();
+        }
+
+        private void track(final Key<?> key) {
+            if (!key.equals(StandardKeys.LOCALE)) {
+                this.localized = false;
+            }
+        }
+    }
+}
@@ -18,11 +18,7 @@
  */
 package com.xpdustry.distributor.common.audience;
 
-import arc.util.Strings;
-import com.xpdustry.distributor.api.Distributor;
 import com.xpdustry.distributor.api.key.KeyContainer;
-import com.xpdustry.distributor.api.key.MutableKeyContainer;
-import com.xpdustry.distributor.api.key.StandardKeys;
 import mindustry.net.NetConnection;
 
 public final class NetConnectionAudienceImpl extends BaseNetConnectionAudience {
@@ -36,19 +32,6 @@ public final class NetConnectionAudienceImpl extends BaseNetConnectionAudience {
 
     @Override
     public KeyContainer getMetadata() {
-        final var container = MutableKeyContainer.create();
-        final var metadata = this.provider.provide(this.connection);
-        if (metadata != null) {
-            if (metadata.muuid() != null) container.set(StandardKeys.MUUID, metadata.muuid());
-            container.set(StandardKeys.COLOR, metadata.color());
-            if (metadata.name() != null) {
-                container.set(StandardKeys.NAME, Strings.stripColors(metadata.name()));
-                container.set(
-                        StandardKeys.DECORATED_NAME,
-                        Distributor.get().getMindustryComponentDecoder().decode(metadata.name()));
-            }
-            if (metadata.locale() != null) container.set(StandardKeys.LOCALE, metadata.locale());
-        }
-        return KeyContainer.from(container);
+        return this.provider.provide(this.connection);
     }
 }
@@ -18,7 +18,12 @@
  */
 package com.xpdustry.distributor.common.audience;
 
+import arc.util.Strings;
+import com.xpdustry.distributor.api.Distributor;
 import com.xpdustry.distributor.api.component.style.ComponentColor;
+import com.xpdustry.distributor.api.key.KeyContainer;
+import com.xpdustry.distributor.api.key.MutableKeyContainer;
+import com.xpdustry.distributor.api.key.StandardKeys;
 import com.xpdustry.distributor.api.player.MUUID;
 import java.util.Locale;
 import mindustry.net.NetConnection;
@@ -35,8 +40,22 @@ public record NetConnectionMetadata(
         return new NetConnectionMetadata(muuid, color, name, locale);
     }
 
+    public KeyContainer toKeyContainer() {
+        final var container = MutableKeyContainer.create();
+        if (this.muuid != null) container.set(StandardKeys.MUUID, this.muuid);
+        container.set(StandardKeys.COLOR, this.color);
+        if (this.name != null) {
+            container.set(StandardKeys.NAME, Strings.stripColors(this.name));
+            container.set(
+                    StandardKeys.DECORATED_NAME,
+                    Distributor.get().getMindustryComponentDecoder().decode(this.name));
+        }
+        if (this.locale != null) container.set(StandardKeys.LOCALE, this.locale);
+        return KeyContainer.from(container);
+    }
+
     @FunctionalInterface
     public interface Provider {
-        @Nullable NetConnectionMetadata provide(final NetConnection connection);
+        KeyContainer provide(final NetConnection connection);
     }
 }
@@ -22,26 +22,85 @@ import arc.Events;
 import arc.func.Cons;
 import arc.struct.ObjectMap;
 import arc.struct.Seq;
+import arc.util.CommandHandler;
 import com.xpdustry.distributor.api.event.EventBus;
+import com.xpdustry.distributor.api.event.EventBusMetrics;
+import com.xpdustry.distributor.api.event.EventFilter;
 import com.xpdustry.distributor.api.event.EventSubscription;
 import com.xpdustry.distributor.api.plugin.MindustryPlugin;
 import com.xpdustry.distributor.api.plugin.PluginAware;
+import com.xpdustry.distributor.api.plugin.PluginListener;
 import com.xpdustry.distributor.api.util.Priority;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
-public final class EventBusImpl implements EventBus {
+public final class EventBusImpl implements EventBus, PluginListener {
 
-    private static final Comparator<Cons<?>> COMPARATOR = (a, b) -> {
-        final var priorityA = a instanceof ConsumerCons<?> m ? m.priority : Priority.NORMAL;
-        final var priorityB = b instanceof ConsumerCons<?> m ? m.priority : Priority.NORMAL;
-        return priorityA.compareTo(priorityB);
-    };
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventBusImpl.class);
+    private static final Priority[] PRIORITIES = Priority.values();
 
     final ObjectMap<Object, Seq<Cons<?>>> events;
+    private final AtomicLong sequence = new AtomicLong(0L);
+    private final boolean polymorphic;
+    private final Executor executor;
+    private final Map<Object, CompletableFuture<Void>> ordered = new ConcurrentHashMap<>();
+    private final EventBusMetricsImpl metrics = new EventBusMetricsImpl();
+    private final Map<MindustryPlugin, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final Set<EventBatch<?>> batches = new CopyOnWriteArraySet<>();
+    // The buckets of each event indexed by priority ordinal, the arrays are replaced rather than modified
+    private final Map<Object, @Nullable SubscriberBucket[]> buckets = new ConcurrentHashMap<>();
+    // Changes to the arc listener lists, which are only applied on the main thread
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+    private final Thread mainThread = Thread.currentThread();
+    private final ClassValue<InheritedBuckets> inherited = new ClassValue<>() {
+        @Override
+        protected InheritedBuckets computeValue(final Class<?> type) {
+            return EventBusImpl.this.computeInheritedBuckets(type);
+        }
+    };
+    private volatile int version = 0;
 
-    @SuppressWarnings("unchecked")
     public EventBusImpl() {
+        this(false, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new event bus. It must be created on the main thread, since the arc listener lists are only modified
+     * by the thread that created the bus.
+     *
+     * @param polymorphic whether posted events are also dispatched to the listeners of their super types
+     * @param executor    the executor of the asynchronous posts
+     */
+    @SuppressWarnings("unchecked")
+    public EventBusImpl(final boolean polymorphic, final Executor executor) {
+        this.polymorphic = polymorphic;
+        this.executor = executor;
         try {
             final var field = Events.class.getDeclaredField("events");
             field.setAccessible(true);
@@ -54,36 +113,143 @@ public final class EventBusImpl implements EventBus {
     @Override
     public <E> EventSubscription subscribe(
             final Class<E> event, final Priority priority, final MindustryPlugin plugin, final Consumer<E> listener) {
-        return this.subscribe(event, new ConsumerCons<>(listener, priority, plugin));
+        return this.addSubscriber(event, priority, plugin, null, listener, null);
+    }
+
+    @Override
+    public <E> EventSubscription subscribe(
+            final Class<E> event,
+            final Priority priority,
+            final MindustryPlugin plugin,
+            final EventFilter<? super E> filter,
+            final Consumer<E> listener) {
+        return this.addSubscriber(event, priority, plugin, filter, listener, null);
+    }
+
+    @Override
+    public <E> EventSubscription subscribeBatched(
+            final Class<E> event,
+            final Priority priority,
+            final MindustryPlugin plugin,
+            final Consumer<List<E>> listener) {
+        final var batch = new EventBatch<E>(plugin, null, listener, this.metrics.getCounters(plugin, event, priority));
+        return this.addSubscriber(event, priority, plugin, null, batch::add, batch);
+    }
+
+    @Override
+    public <E> EventSubscription subscribeCoalesced(
+            final Class<E> event,
+            final Priority priority,
+            final MindustryPlugin plugin,
+            final Function<? super E, ?> key,
+            final Consumer<List<E>> listener) {
+        final var batch = new EventBatch<E>(plugin, key, listener, this.metrics.getCounters(plugin, event, priority));
+        return this.addSubscriber(event, priority, plugin, null, batch::add, batch);
     }
 
     @Override
     public <E extends Enum<E>> EventSubscription subscribe(
             final E event, final Priority priority, final MindustryPlugin plugin, final Runnable listener) {
-        return this.subscribe(event, new ConsumerCons<>(e -> listener.run(), priority, plugin));
+        return this.addSubscriber(event, priority, plugin, null, e -> listener.run(), null);
     }
 
-    private <E> EventSubscription subscribe(final Object event, final ConsumerCons<E> subscriber) {
-        this.events.get(event, () -> new Seq<>(Cons.class)).add(subscriber).sort(COMPARATOR);
-        return () -> {
-            final var subscribers = this.events.get(event);
-            if (subscribers != null) {
-                subscribers.remove(subscriber);
-                if (subscribers.isEmpty()) {
-                    this.events.remove(event);
-                }
+    @Override
+    public void onPluginUpdate() {
+        this.applyPendingChanges();
+        for (final var batch : this.batches) {
+            batch.flush();
+        }
+    }
+
+    @Override
+    public void onPluginServerCommandsRegistration(final CommandHandler handler) {
+        this.metrics.onPluginServerCommandsRegistration(handler);
+    }
+
+    /**
+     * Returns the metrics of the listeners of this event bus.
+     */
+    public EventBusMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    private <E> EventSubscription addSubscriber(
+            final Object event,
+            final Priority priority,
+            final MindustryPlugin plugin,
+            final @Nullable EventFilter<? super E> filter,
+            final Consumer<E> listener,
+            final @Nullable EventBatch<E> batch) {
+        final var subscriber = new ConsumerCons<>(
+                listener,
+                priority,
+                plugin,
+                this.sequence.getAndIncrement(),
+                // Batched listeners are timed when their batch is flushed, not when an event is added to it
+                batch == null ? this.metrics.getCounters(plugin, event, priority) : null,
+                filter instanceof EventFilter.Keyed<? super E, ?> ? null : filter,
+                filter instanceof EventFilter.Keyed<? super E, ?> keyed ? keyed : null);
+        final SubscriberBucket bucket;
+        synchronized (this.buckets) {
+            bucket = this.getBucket(event, subscriber.priority());
+            bucket.add(subscriber);
+        }
+        final var subscription = new Subscription(bucket, subscriber, batch);
+        if (batch != null) {
+            this.batches.add(batch);
+        }
+        this.subscriptions
+                .computeIfAbsent(plugin, key -> ConcurrentHashMap.newKeySet())
+                .add(subscription);
+        return subscription;
+    }
+
+    @Override
+    public void unsubscribeAll(final MindustryPlugin plugin) {
+        this.metrics.reset(plugin);
+        final var subscriptions = this.subscriptions.remove(plugin);
+        if (subscriptions == null) {
+            return;
+        }
+        // Grouped by bucket so each bucket is only checked for pruning once
+        final Map<SubscriberBucket, Set<ConsumerCons<?>>> grouped = new IdentityHashMap<>();
+        for (final var subscription : subscriptions) {
+            if (subscription.batch != null) {
+                this.batches.remove(subscription.batch);
+            }
+            grouped.computeIfAbsent(subscription.bucket, key -> new HashSet<>())
+                    .add(subscription.subscriber);
+        }
+        grouped.forEach(this::removeSubscribers);
+    }
+
+    private void removeSubscribers(final SubscriberBucket bucket, final Collection<ConsumerCons<?>> subscribers) {
+        synchronized (this.buckets) {
+            for (final var subscriber : subscribers) {
+                bucket.remove(subscriber);
             }
-        };
+            if (bucket.isEmpty()) {
+                this.removeBucket(bucket);
+            }
+        }
     }
 
     @Override
     public <E> void post(final E event) {
-        Events.fire(event.getClass(), event);
+        if (this.polymorphic) {
+            this.fire(event.getClass(), event);
+        } else {
+            Events.fire(event.getClass(), event);
+        }
     }
 
     @Override
     public <E> void post(final Class<? super E> clazz, final E event) {
-        Events.fire(clazz, event);
+        if (this.polymorphic) {
+            this.fire(clazz, event);
+        } else {
+            Events.fire(clazz, event);
+        }
     }
 
     @Override
@@ -91,13 +257,573 @@ public final class EventBusImpl implements EventBus {
         Events.fire(event);
     }
 
-    private record ConsumerCons<T>(Consumer<T> consumer, Priority priority, MindustryPlugin plugin)
+    @Override
+    public <E> CompletableFuture<Void> postAsync(final E event) {
+        return CompletableFuture.runAsync(() -> this.fireOwn(event.getClass(), event), this.executor);
+    }
+
+    @Override
+    public <E> CompletableFuture<Void> postAsync(final Class<? super E> clazz, final E event) {
+        return CompletableFuture.runAsync(() -> this.fireOwn(clazz, event), this.executor);
+    }
+
+    @Override
+    public <E extends Enum<E>> CompletableFuture<Void> postAsync(final E event) {
+        return CompletableFuture.runAsync(() -> this.fireOwn(event, event), this.executor);
+    }
+
+    @Override
+    public <E> CompletableFuture<Void> postAsyncOrdered(final Object key, final E event) {
+        return this.dispatchOrdered(key, () -> this.fireOwn(event.getClass(), event));
+    }
+
+    @Override
+    public <E> CompletableFuture<Void> postAsyncOrdered(
+            final Object key, final Class<? super E> clazz, final E event) {
+        return this.dispatchOrdered(key, () -> this.fireOwn(clazz, event));
+    }
+
+    @Override
+    public <E extends Enum<E>> CompletableFuture<Void> postAsyncOrdered(final Object key, final E event) {
+        return this.dispatchOrdered(key, () -> this.fireOwn(event, event));
+    }
+
+    private CompletableFuture<Void> dispatchOrdered(final Object key, final Runnable post) {
+        // Each ordered post is chained to the previous one of the same key, regardless of its outcome
+        final var future = this.ordered.compute(
+                key,
+                (k, previous) -> previous == null
+                        ? CompletableFuture.runAsync(post, this.executor)
+                        : previous.handle((result, throwable) -> null).thenRunAsync(post, this.executor));
+        future.whenComplete((result, throwable) -> this.ordered.remove(key, future));
+        return future.copy();
+    }
+
+    // Each (event, priority) pair is backed by a single bucket registered in the arc event map,
+    // so the arc listener list is only modified when a priority starts or stops being used for an event.
+    // Must be called while holding the lock of the buckets.
+    private SubscriberBucket getBucket(final Object event, final Priority priority) {
+        final var ordinal = priority.ordinal();
+        final var buckets = this.buckets.get(event);
+        if (buckets != null && buckets[ordinal] != null) {
+            return buckets[ordinal];
+        }
+        final var bucket = new SubscriberBucket(this, event, priority);
+        final var updated = buckets == null ? new SubscriberBucket[PRIORITIES.length] : buckets.clone();
+        updated[ordinal] = bucket;
+        this.buckets.put(event, updated);
+        // Only new and pruned buckets change the listeners of a class hierarchy, their content is read live
+        this.version++;
+        this.modifyListeners(() -> {
+            // The list is copied and swapped so a listener subscribing during a post does not affect that post
+            final var listeners = this.events.get(event);
+            final var copy = listeners == null ? new Seq<Cons<?>>(Cons.class) : new Seq<>(listeners);
+            int index = 0;
+            while (index < copy.size && getPriority(copy.items[index]).compareTo(priority) <= 0) {
+                index++;
+            }
+            copy.insert(index, bucket);
+            this.events.put(event, copy);
+        });
+        return bucket;
+    }
+
+    // Must be called while holding the lock of the buckets
+    private void removeBucket(final SubscriberBucket bucket) {
+        final var buckets = this.buckets.get(bucket.event);
+        final var ordinal = bucket.priority.ordinal();
+        if (buckets == null || buckets[ordinal] != bucket) {
+            return;
+        }
+        final var updated = buckets.clone();
+        updated[ordinal] = null;
+        if (Arrays.stream(updated).allMatch(Objects::isNull)) {
+            this.buckets.remove(bucket.event);
+        } else {
+            this.buckets.put(bucket.event, updated);
+        }
+        this.version++;
+        this.modifyListeners(() -> {
+            final var listeners = this.events.get(bucket.event);
+            if (listeners == null) {
+                return;
+            }
+            final var copy = new Seq<>(listeners);
+            copy.remove(bucket, true);
+            if (copy.isEmpty()) {
+                this.events.remove(bucket.event);
+            } else {
+                this.events.put(bucket.event, copy);
+            }
+        });
+    }
+
+    // arc does not synchronize its event map, so it is only modified on the main thread, in submission order
+    private void modifyListeners(final Runnable change) {
+        this.pending.add(change);
+        if (Thread.currentThread() == this.mainThread) {
+            this.applyPendingChanges();
+        }
+    }
+
+    private void applyPendingChanges() {
+        Runnable change;
+        while ((change = this.pending.poll()) != null) {
+            change.run();
+        }
+    }
+
+    // Same as Events.fire, but the buckets of the super types are interleaved with the listeners by priority
+    @SuppressWarnings("unchecked")
+    private void fire(final Class<?> type, final Object event) {
+        final var inherited = this.getInheritedBuckets(type);
+        int ordinal = 0;
+        final var listeners = this.events.get(type);
+        if (listeners != null) {
+            final var items = listeners.items;
+            final var size = listeners.size;
+            for (int i = 0; i < size; i++) {
+                final var listener = (Cons<Object>) items[i];
+                final var current = getPriority(listener).ordinal();
+                while (ordinal < current) {
+                    inherited.fire(ordinal++, event);
+                }
+                listener.get(event);
+            }
+        }
+        while (ordinal < PRIORITIES.length) {
+            inherited.fire(ordinal++, event);
+        }
+    }
+
+    // Only calls the buckets of this bus, the other arc listeners expect to be called on the main thread
+    private void fireOwn(final Object type, final Object event) {
+        final var buckets = this.buckets.get(type);
+        final var inherited =
+                this.polymorphic && type instanceof Class<?> clazz ? this.getInheritedBuckets(clazz) : null;
+        for (int i = 0; i < PRIORITIES.length; i++) {
+            if (buckets != null && buckets[i] != null) {
+                buckets[i].get(event);
+            }
+            if (inherited != null) {
+                inherited.fire(i, event);
+            }
+        }
+    }
+
+    private InheritedBuckets getInheritedBuckets(final Class<?> type) {
+        var inherited = this.inherited.get(type);
+        if (inherited.version != this.version) {
+            this.inherited.remove(type);
+            inherited = this.inherited.get(type);
+        }
+        return inherited;
+    }
+
+    private InheritedBuckets computeInheritedBuckets(final Class<?> type) {
+        // The version is read first so a concurrently created or pruned bucket makes this entry stale
+        final var version = this.version;
+        final Set<Class<?>> supertypes = new LinkedHashSet<>();
+        collectSupertypes(type, supertypes);
+        final List<List<SubscriberBucket>> buckets = new ArrayList<>();
+        for (int i = 0; i < PRIORITIES.length; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (final var supertype : supertypes) {
+            final var supertypeBuckets = this.buckets.get(supertype);
+            if (supertypeBuckets == null) continue;
+            for (int i = 0; i < supertypeBuckets.length; i++) {
+                if (supertypeBuckets[i] != null) {
+                    buckets.get(i).add(supertypeBuckets[i]);
+                }
+            }
+        }
+        return new InheritedBuckets(
+                version,
+                buckets.stream()
+                        .map(list -> list.toArray(SubscriberBucket[]::new))
+                        .toArray(SubscriberBucket[][]::new));
+    }
+
+    // Nearest super types first
+    private static void collectSupertypes(final Class<?> type, final Set<Class<?>> supertypes) {
+        final List<Class<?>> queue = new ArrayList<>();
+        queue.add(type);
+        for (int i = 0; i < queue.size(); i++) {
+            final var current = queue.get(i);
+            final var superclass = current.getSuperclass();
+            if (superclass != null && supertypes.add(superclass)) {
+                queue.add(superclass);
+            }
+            for (final var superinterface : current.getInterfaces()) {
+                if (supertypes.add(superinterface)) {
+                    queue.add(superinterface);
+                }
+            }
+        }
+    }
+
+    private static Priority getPriority(final Cons<?> listener) {
+        return listener instanceof SubscriberBucket bucket ? bucket.priority : Priority.NORMAL;
+    }
+
+    private record InheritedBuckets(int version, SubscriberBucket[][] buckets) {
+
+        private void fire(final int ordinal, final Object event) {
+            for (final var bucket : this.buckets[ordinal]) {
+                bucket.get(event);
+            }
+        }
+    }
+
+    private final class Subscription implements EventSubscription {
+
+        private final SubscriberBucket bucket;
+        private final ConsumerCons<?> subscriber;
+        private final @Nullable EventBatch<?> batch;
+
+        private Subscription(
+                final SubscriberBucket bucket, final ConsumerCons<?> subscriber, final @Nullable EventBatch<?> batch) {
+            this.bucket = bucket;
+            this.subscriber = subscriber;
+            this.batch = batch;
+        }
+
+        @Override
+        public void unsubscribe() {
+            final var subscriptions = EventBusImpl.this.subscriptions.get(this.subscriber.plugin());
+            if (subscriptions != null) {
+                subscriptions.remove(this);
+            }
+            EventBusImpl.this.removeSubscribers(this.bucket, List.of(this.subscriber));
+            if (this.batch != null) {
+                EventBusImpl.this.batches.remove(this.batch);
+            }
+        }
+    }
+
+    // Buffers the events of a tick until the next update. With a key, only the last event of each key is kept,
+    // at the position of the first one.
+    private static final class EventBatch<E> {
+
+        private final MindustryPlugin plugin;
+        private final @Nullable Function<? super E, ?> key;
+        private final Consumer<List<E>> listener;
+        private final EventBusMetricsImpl.Counters counters;
+        private List<E> events = new ArrayList<>();
+        private Map<@Nullable Object, E> coalesced = new LinkedHashMap<>();
+
+        private EventBatch(
+                final MindustryPlugin plugin,
+                final @Nullable Function<? super E, ?> key,
+                final Consumer<List<E>> listener,
+                final EventBusMetricsImpl.Counters counters) {
+            this.plugin = plugin;
+            this.key = key;
+            this.listener = listener;
+            this.counters = counters;
+        }
+
+        private void add(final E event) {
+            if (this.key == null) {
+                synchronized (this) {
+                    this.events.add(event);
+                }
+            } else {
+                final var key = this.key.apply(event);
+                synchronized (this) {
+                    this.coalesced.put(key, event);
+                }
+            }
+        }
+
+        private void flush() {
+            final List<E> events;
+            synchronized (this) {
+                if (this.key == null) {
+                    if (this.events.isEmpty()) {
+                        return;
+                    }
+                    events = this.events;
+                    this.events = new ArrayList<>();
+                } else {
+                    if (this.coalesced.isEmpty()) {
+                        return;
+                    }
+                    events = new ArrayList<>(this.coalesced.values());
+                    this.coalesced = new LinkedHashMap<>();
+                }
+            }
+            if (!this.counters.isEnabled()) {
+                this.accept(events);
+                return;
+            }
+            final var start = System.nanoTime();
+            final var failed = !this.accept(events);
+            this.counters.record(System.nanoTime() - start, failed);
+        }
+
+        private boolean accept(final List<E> events) {
+            try {
+                this.listener.accept(Collections.unmodifiableList(events));
+                return true;
+            } catch (final Throwable e) {
+                this.plugin
+                        .getLogger()
+                        .atError()
+                        .setMessage("An error occurred while handling a batch of {} events.")
+                        .addArgument(events.size())
+                        .setCause(e)
+                        .log();
+                return false;
+            }
+        }
+    }
+
+    // Subscribers are added and removed in O(log n) from a tree sorted by sequence number, which preserves the
+    // subscription order. The flat view read by the posts is only rebuilt by the first post following a change.
+    private static final class SubscriberBucket implements Cons<Object> {
+
+        private final EventBusImpl bus;
+        private final Object event;
+        private final Priority priority;
+        private final NavigableMap<Long, ConsumerCons<?>> tree = new TreeMap<>();
+        private volatile @Nullable Subscribers subscribers = Subscribers.EMPTY;
+
+        private SubscriberBucket(final EventBusImpl bus, final Object event, final Priority priority) {
+            this.bus = bus;
+            this.event = event;
+            this.priority = priority;
+        }
+
+        @Override
+        public void get(final Object event) {
+            var subscribers = this.subscribers;
+            if (subscribers == null) {
+                subscribers = this.rebuild();
+            }
+            subscribers.fire(event);
+        }
+
+        private synchronized Subscribers rebuild() {
+            var subscribers = this.subscribers;
+            if (subscribers == null) {
+                subscribers = Subscribers.of(this.tree.values().toArray(Subscribers.NONE));
+                this.subscribers = subscribers;
+            }
+            return subscribers;
+        }
+
+        private synchronized void add(final ConsumerCons<?> subscriber) {
+            if (this.tree.putIfAbsent(subscriber.id(), subscriber) == null) {
+                this.subscribers = null;
+            }
+        }
+
+        private synchronized void remove(final ConsumerCons<?> subscriber) {
+            if (this.tree.remove(subscriber.id(), subscriber)) {
+                this.subscribers = null;
+            }
+        }
+
+        private synchronized boolean isEmpty() {
+            return this.tree.isEmpty();
+        }
+    }
+
+    // Immutable view of the subscribers of a bucket. The subscribers with a keyed filter are indexed by the value of
+    // their key, so the key is extracted once per event and the subscribers of the other values are never visited.
+    private static final class Subscribers {
+
+        private static final ConsumerCons<?>[] NONE = new ConsumerCons<?>[0];
+        private static final Subscribers EMPTY = new Subscribers(NONE, new KeyedGroup[0]);
+
+        private final ConsumerCons<?>[] unkeyed;
+        private final KeyedGroup[] groups;
+
+        private Subscribers(final ConsumerCons<?>[] unkeyed, final KeyedGroup[] groups) {
+            this.unkeyed = unkeyed;
+            this.groups = groups;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Subscribers of(final ConsumerCons<?>[] subscribers) {
+            if (subscribers.length == 0) {
+                return EMPTY;
+            }
+            final List<ConsumerCons<?>> unkeyed = new ArrayList<>();
+            final Map<Function<Object, Object>, Map<Object, List<ConsumerCons<?>>>> keyed = new LinkedHashMap<>();
+            for (final var subscriber : subscribers) {
+                final var filter = subscriber.keyed();
+                if (filter == null) {
+                    unkeyed.add(subscriber);
+                } else {
+                    keyed.computeIfAbsent((Function<Object, Object>) filter.getKey(), key -> new HashMap<>())
+                            .computeIfAbsent(filter.getValue(), value -> new ArrayList<>())
+                            .add(subscriber);
+                }
+            }
+            final var groups = new KeyedGroup[keyed.size()];
+            int i = 0;
+            for (final var entry : keyed.entrySet()) {
+                final Map<Object, ConsumerCons<?>[]> values = new HashMap<>();
+                entry.getValue().forEach((value, list) -> values.put(value, list.toArray(NONE)));
+                groups[i++] = new KeyedGroup(entry.getKey(), values);
+            }
+            return new Subscribers(unkeyed.toArray(NONE), groups);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void fire(final Object event) {
+            if (this.groups.length == 0) {
+                for (final var subscriber : this.unkeyed) {
+                    ((ConsumerCons<Object>) subscriber).get(event);
+                }
+            } else if (this.groups.length == 1) {
+                merge(event, this.unkeyed, this.groups[0].select(event));
+            } else {
+                final var size = this.groups.length + 1;
+                final var state = MergeState.acquire(size);
+                try {
+                    state.selected[0] = this.unkeyed;
+                    for (int i = 0; i < this.groups.length; i++) {
+                        state.selected[i + 1] = this.groups[i].select(event);
+                    }
+                    merge(event, state.selected, state.indexes, size);
+                } finally {
+                    state.release(size);
+                }
+            }
+        }
+
+        // The selected subscribers are merged by sequence number to keep the subscription order
+        @SuppressWarnings("unchecked")
+        private static void merge(final Object event, final ConsumerCons<?>[] first, final ConsumerCons<?>[] second) {
+            int i = 0;
+            int j = 0;
+            while (i < first.length || j < second.length) {
+                final ConsumerCons<?> next;
+                if (j == second.length || (i < first.length && first[i].id() < second[j].id())) {
+                    next = first[i++];
+                } else {
+                    next = second[j++];
+                }
+                ((ConsumerCons<Object>) next).get(event);
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static void merge(
+                final Object event, final ConsumerCons<?>[][] selected, final int[] indexes, final int size) {
+            while (true) {
+                int lowest = -1;
+                for (int i = 0; i < size; i++) {
+                    if (indexes[i] < selected[i].length
+                            && (lowest == -1
+                                    || selected[i][indexes[i]].id() < selected[lowest][indexes[lowest]].id())) {
+                        lowest = i;
+                    }
+                }
+                if (lowest == -1) {
+                    return;
+                }
+                ((ConsumerCons<Object>) selected[lowest][indexes[lowest]++]).get(event);
+            }
+        }
+    }
+
+    // The arrays merged by the posts of a thread selecting more than one keyed group, reused to not allocate them per
+    // event. A listener posting an event selecting several keyed groups while they are in use gets new arrays.
+    private static final class MergeState {
+
+        private static final ThreadLocal<MergeState> CURRENT = ThreadLocal.withInitial(MergeState::new);
+
+        private ConsumerCons<?>[][] selected = new ConsumerCons<?>[4][];
+        private int[] indexes = new int[4];
+        private boolean used = false;
+
+        private static MergeState acquire(final int size) {
+            var state = CURRENT.get();
+            if (state.used) {
+                state = new MergeState();
+            }
+            if (state.selected.length < size) {
+                state.selected = new ConsumerCons<?>[size][];
+                state.indexes = new int[size];
+            }
+            state.used = true;
+            return state;
+        }
+
+        private void release(final int size) {
+            Arrays.fill(this.selected, 0, size, null);
+            Arrays.fill(this.indexes, 0, size, 0);
+            this.used = false;
+        }
+    }
+
+    private record KeyedGroup(Function<Object, Object> key, Map<Object, ConsumerCons<?>[]> values) {
+
+        private ConsumerCons<?>[] select(final Object event) {
+            final Object value;
+            try {
+                value = this.key.apply(event);
+            } catch (final Throwable e) {
+                LOGGER.atError()
+                        .setMessage("An error occurred while extracting the filter key of a {} event.")
+                        .addArgument(event.getClass().getSimpleName())
+                        .setCause(e)
+                        .log();
+                return Subscribers.NONE;
+            }
+            return this.values.getOrDefault(value, Subscribers.NONE);
+        }
+    }
+
+    private record ConsumerCons<T>(
+            Consumer<T> consumer,
+            Priority priority,
+            MindustryPlugin plugin,
+            long id,
+            EventBusMetricsImpl.@Nullable Counters counters,
+            @Nullable EventFilter<? super T> predicate,
+            EventFilter.@Nullable Keyed<? super T, ?> keyed)
             implements Cons<T>, PluginAware {
 
         @Override
         public void get(final T event) {
+            if (this.predicate != null && !this.test(this.predicate, event)) {
+                return;
+            }
+            final var counters = this.counters;
+            if (counters == null || !counters.isEnabled()) {
+                this.accept(event);
+                return;
+            }
+            final var start = System.nanoTime();
+            final var failed = !this.accept(event);
+            counters.record(System.nanoTime() - start, failed);
+        }
+
+        private boolean test(final EventFilter<? super T> predicate, final T event) {
+            try {
+                return predicate.test(event);
+            } catch (final Throwable e) {
+                this.plugin
+                        .getLogger()
+                        .atError()
+                        .setMessage("An error occurred while filtering a {} event.")
+                        .addArgument(event.getClass().getSimpleName())
+                        .setCause(e)
+                        .log();
+                return false;
+            }
+        }
+
+        private boolean accept(final T event) {
             try {
                 this.consumer.accept(event);
+                return true;
             } catch (final Throwable e) {
                 this.plugin
                         .getLogger()
@@ -106,6 +832,7 @@ public final class EventBusImpl implements EventBus {
                         .addArgument(event.getClass().getSimpleName())
                         .setCause(e)
                         .log();
+                return false;
             }
         }
 
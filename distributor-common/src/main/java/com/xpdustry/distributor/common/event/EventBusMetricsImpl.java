@@ -0,0 +1,129 @@
+/*
+ * Distributor, a feature-rich framework for Mindustry plugins.
+ *
+ * Copyright (C) 2024 Xpdustry
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.xpdustry.distributor.common.event;
+
+import com.xpdustry.distributor.api.event.EventBusMetrics;
+import com.xpdustry.distributor.api.event.EventListenerMetrics;
+import com.xpdustry.distributor.api.plugin.MindustryPlugin;
+import com.xpdustry.distributor.api.util.Priority;
+import com.xpdustry.distributor.common.metrics.AbstractPluginMetrics;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+final class EventBusMetricsImpl extends AbstractPluginMetrics<EventListenerMetrics> implements EventBusMetrics {
+
+    private final Map<CountersKey, Counters> counters = new ConcurrentHashMap<>();
+
+    EventBusMetricsImpl() {
+        super("event-metrics", "event listener");
+    }
+
+    @Override
+    public List<EventListenerMetrics> getListenerMetrics() {
+        return this.counters.entrySet().stream()
+                .map(entry -> entry.getValue().snapshot(entry.getKey()))
+                .filter(metrics -> metrics.getInvocationCount() > 0)
+                .sorted(Comparator.comparing(EventListenerMetrics::getTotalTime).reversed())
+                .toList();
+    }
+
+    @Override
+    public void reset() {
+        this.counters.values().forEach(Counters::reset);
+    }
+
+    @Override
+    public void reset(final MindustryPlugin plugin) {
+        this.counters.keySet().removeIf(key -> key.plugin() == plugin);
+    }
+
+    @Override
+    protected List<EventListenerMetrics> getMetrics() {
+        return this.getListenerMetrics();
+    }
+
+    @Override
+    protected String format(final EventListenerMetrics metrics) {
+        return String.format(
+                "%s: %s (%s), calls=%d, total=%.3fms, avg=%.3fms, max=%.3fms, errors=%d",
+                metrics.getPlugin().getMetadata().getName(),
+                metrics.getEvent() instanceof Class<?> type ? type.getSimpleName() : metrics.getEvent(),
+                metrics.getPriority(),
+                metrics.getInvocationCount(),
+                metrics.getTotalTime().toNanos() / 1_000_000D,
+                metrics.getTotalTime().toNanos() / 1_000_000D / metrics.getInvocationCount(),
+                metrics.getMaxTime().toNanos() / 1_000_000D,
+                metrics.getExceptionCount());
+    }
+
+    Counters getCounters(final MindustryPlugin plugin, final Object event, final Priority priority) {
+        return this.counters.computeIfAbsent(new CountersKey(plugin, event, priority), key -> new Counters(this));
+    }
+
+    private record CountersKey(MindustryPlugin plugin, Object event, Priority priority) {}
+
+    static final class Counters {
+
+        private final EventBusMetricsImpl metrics;
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+        private final LongAdder exceptions = new LongAdder();
+
+        private Counters(final EventBusMetricsImpl metrics) {
+            this.metrics = metrics;
+        }
+
+        boolean isEnabled() {
+            return this.metrics.isEnabled();
+        }
+
+        void record(final long nanos, final boolean failed) {
+            this.invocations.increment();
+            this.totalNanos.add(nanos);
+            this.maxNanos.accumulate(nanos);
+            if (failed) {
+                this.exceptions.increment();
+            }
+        }
+
+        private void reset() {
+            this.invocations.reset();
+            this.totalNanos.reset();
+            this.maxNanos.reset();
+            this.exceptions.reset();
+        }
+
+        private EventListenerMetrics snapshot(final CountersKey key) {
+            return EventListenerMetrics.of(
+                    key.plugin(),
+                    key.event(),
+                    key.priority(),
+                    this.invocations.sum(),
+                    Duration.ofNanos(this.totalNanos.sum()),
+                    Duration.ofNanos(this.maxNanos.get()),
+                    this.exceptions.sum());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Distributor, a feature-rich framework for Mindustry plugins.
+ *
+ * Copyright (C) 2024 Xpdustry
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.xpdustry.distributor.common.metrics;
+
+import arc.util.CommandHandler;
+import com.xpdustry.distributor.api.plugin.MindustryPlugin;
+import com.xpdustry.distributor.api.plugin.PluginListener;
+import java.util.List;
+import org.jspecify.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Base class of the metrics collected per plugin, providing the toggle and the server command
+ * showing the collected metrics as a table or enabling, disabling and resetting them.
+ *
+ * @param <M> the type of the metrics
+ */
+public abstract class AbstractPluginMetrics<M> implements PluginListener {
+
+    private static final int DISPLAYED_METRICS = 20;
+
+    private final Logger logger = LoggerFactory.getLogger(this.getClass());
+    private final String command;
+    private final String name;
+    private volatile boolean enabled = false;
+
+    /**
+     * Creates new plugin metrics.
+     *
+     * @param command the name of the server command managing the metrics
+     * @param name    the lowercase name of the metrics, such as {@code "event listener"}
+     */
+    protected AbstractPluginMetrics(final String command, final String name) {
+        this.command = command;
+        this.name = name;
+    }
+
+    public boolean isEnabled() {
+        return this.enabled;
+    }
+
+    public void setEnabled(final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public abstract void reset();
+
+    public abstract void reset(final MindustryPlugin plugin);
+
+    /**
+     * Returns a snapshot of the collected metrics, sorted by descending total time.
+     */
+    protected abstract List<M> getMetrics();
+
+    /**
+     * Returns a line summarizing the metrics, logged by the server command before the table.
+     */
+    protected @Nullable String getSummary() {
+        return null;
+    }
+
+    /**
+     * Formats the given metrics as a row of the table logged by the server command, without the line break.
+     */
+    protected abstract String format(final M metrics);
+
+    @Override
+    public void onPluginServerCommandsRegistration(final CommandHandler handler) {
+        handler.register(
+                this.command, "[enable|disable|reset]", "Show or manage the " + this.name + " metrics.", args -> {
+                    if (args.length == 0) {
+                        this.log();
+                        return;
+                    }
+                    switch (args[0]) {
+                        case "enable" -> this.setEnabled(true);
+                        case "disable" -> this.setEnabled(false);
+                        case "reset" -> this.reset();
+                        default -> {
+                            this.logger.error("Unknown action {}, expected enable, disable or reset.", args[0]);
+                            return;
+                        }
+                    }
+                    this.logger.info("The {} metrics are {}.", this.name, this.getState());
+                });
+    }
+
+    private void log() {
+        final var summary = this.getSummary();
+        if (summary != null) {
+            this.logger.info("The {} metrics summary: {}", this.name, summary);
+        }
+        final var metrics = this.getMetrics();
+        if (metrics.isEmpty()) {
+            this.logger.info("No {} metrics collected, metrics are {}.", this.name, this.getState());
+            return;
+        }
+        final var builder = new StringBuilder("The ")
+                .append(this.name)
+                .append(" metrics, sorted by total time:");
+        for (final var metric : metrics.subList(0, Math.min(DISPLAYED_METRICS, metrics.size()))) {
+            builder.append(System.lineSeparator()).append("- ").append(this.format(metric));
+        }
+        this.logger.info(builder.toString());
+    }
+
+    private String getState() {
+        return this.enabled ? "enabled" : "disabled";
+    }
+}
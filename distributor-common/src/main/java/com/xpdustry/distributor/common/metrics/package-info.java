@@ -0,0 +1,4 @@
+@NullMarked
+package com.xpdustry.distributor.common.metrics;
+
+import org.jspecify.annotations.NullMarked;
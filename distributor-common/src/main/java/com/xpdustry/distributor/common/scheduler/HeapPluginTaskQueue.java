@@ -0,0 +1,61 @@
+/*
+ * Distributor, a feature-rich framework for Mindustry plugins.
+ *
+ * Copyright (C) 2024 Xpdustry
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.xpdustry.distributor.common.scheduler;
+
+import java.util.Comparator;
+import java.util.Queue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.function.Consumer;
+
+final class HeapPluginTaskQueue extends PluginTaskQueue {
+
+    private final Queue<PluginTaskImpl<?>> tasks =
+            new PriorityBlockingQueue<>(16, Comparator.comparing(PluginTaskImpl::getNextExecutionTime));
+
+    @Override
+    void add(final PluginTaskImpl<?> task) {
+        this.tasks.add(task);
+    }
+
+    @Override
+    void remove(final PluginTaskImpl<?> task) {
+        this.tasks.remove(task);
+    }
+
+    @Override
+    void drain(final long now, final Consumer<PluginTaskImpl<?>> consumer) {
+        while (!this.tasks.isEmpty()) {
+            final var task = this.tasks.peek();
+            if (task.isCancelled()) {
+                this.tasks.remove();
+                consumer.accept(task);
+            } else if (task.getNextExecutionTime() < now) {
+                this.tasks.remove();
+                consumer.accept(task);
+            } else {
+                break;
+            }
+        }
+    }
+
+    @Override
+    int size() {
+        return this.tasks.size();
+    }
+}
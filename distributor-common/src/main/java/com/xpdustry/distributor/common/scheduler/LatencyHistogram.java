@@ -0,0 +1,101 @@
+/*
+ * Distributor, a feature-rich framework for Mindustry plugins.
+ *
+ * Copyright (C) 2024 Xpdustry
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.xpdustry.distributor.common.scheduler;
+
+import com.xpdustry.distributor.api.scheduler.LatencyMetrics;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// A lock-free log-linear histogram of durations in nanoseconds, in the spirit of HdrHistogram.
+// Each power of two is split into 16 linear sub-buckets, so the recorded values are approximated within 6.25%
+// with a fixed footprint of 960 buckets, whatever the range of the values.
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    void record(final long nanos) {
+        final var value = Math.max(0L, nanos);
+        this.buckets.incrementAndGet(getIndex(value));
+        this.count.increment();
+        this.total.add(value);
+        this.max.accumulate(value);
+    }
+
+    long getCount() {
+        return this.count.sum();
+    }
+
+    /**
+     * Returns the highest value of the bucket containing the given percentile, capped by the maximum value.
+     */
+    long getValueAtPercentile(final double percentile) {
+        var remaining = (long) Math.ceil(this.count.sum() * percentile / 100D);
+        for (int i = 0; i < BUCKETS; i++) {
+            remaining -= this.buckets.get(i);
+            if (remaining <= 0) {
+                return Math.min(getHighestValue(i), this.max.get());
+            }
+        }
+        return this.max.get();
+    }
+
+    void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            this.buckets.set(i, 0L);
+        }
+        this.count.reset();
+        this.total.reset();
+        this.max.reset();
+    }
+
+    LatencyMetrics snapshot() {
+        return LatencyMetrics.of(
+                this.count.sum(),
+                Duration.ofNanos(this.total.sum()),
+                Duration.ofNanos(this.getValueAtPercentile(50D)),
+                Duration.ofNanos(this.getValueAtPercentile(99D)),
+                Duration.ofNanos(this.max.get()));
+    }
+
+    static int getIndex(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final var shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    static long getHighestValue(final int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final var shift = index / SUB_BUCKETS - 1;
+        final var lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
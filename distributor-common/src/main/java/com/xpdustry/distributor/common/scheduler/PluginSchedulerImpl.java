@@ -18,20 +18,35 @@
  */
 package com.xpdustry.distributor.common.scheduler;
 
+import arc.util.CommandHandler;
 import com.xpdustry.distributor.api.plugin.MindustryPlugin;
 import com.xpdustry.distributor.api.plugin.PluginListener;
 import com.xpdustry.distributor.api.scheduler.PluginScheduler;
+import com.xpdustry.distributor.api.scheduler.PluginSchedulerMetrics;
 import com.xpdustry.distributor.api.scheduler.PluginTask;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collector;
 import java.util.stream.Collectors;
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -39,17 +54,66 @@ public final class PluginSchedulerImpl implements PluginScheduler, PluginListene
 
     public static final String DISTRIBUTOR_WORKER_BASE_NAME = "distributor-worker-";
     private static final Logger logger = LoggerFactory.getLogger("PluginScheduler");
+    private static final StackWalker CALLER_WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
 
-    private final Queue<PluginTaskImpl<?>> tasks =
-            new PriorityBlockingQueue<>(16, Comparator.comparing(PluginTaskImpl::getNextExecutionTime));
+    private final PluginTaskQueue tasks;
+    private final boolean eagerRemoval;
+    private final LongAdder cancelled = new LongAdder();
     private final ForkJoinPool pool;
+    private final PluginTaskDispatcher dispatcher;
+    private final @Nullable VirtualThreadExecutor virtualPool;
+    private final boolean virtualThreads;
     private final Executor syncExecutor;
+    private final long syncBudget;
+    private final Queue<PluginTaskImpl<?>> syncBacklog =
+            new PriorityBlockingQueue<>(16, Comparator.comparing(PluginTaskImpl::getNextExecutionTime));
+    private final AtomicBoolean syncFlushPending = new AtomicBoolean(false);
+    // Start of the running flush of the sync backlog, only accessed on the main thread
+    private long syncFlushStart = 0L;
     private final PluginTimeSource source;
+    // Accessed by the tasks to record their executions
+    final PluginSchedulerMetricsImpl metrics = new PluginSchedulerMetricsImpl(this.syncBacklog::size);
+    private volatile @Nullable Thread mainThread = null;
+    private final Object drainLock = new Object();
+    private final @Nullable Thread timer;
 
     public PluginSchedulerImpl(final PluginTimeSource source, final Executor syncExecutor, final int parallelism) {
+        this(source, syncExecutor, parallelism, Options.defaults());
+    }
+
+    /**
+     * Creates a new plugin scheduler.
+     *
+     * @param source       the time source
+     * @param syncExecutor the executor of the synchronous tasks
+     * @param parallelism  the number of threads running the asynchronous tasks
+     * @param options      the options of the scheduler
+     */
+    public PluginSchedulerImpl(
+            final PluginTimeSource source,
+            final Executor syncExecutor,
+            final int parallelism,
+            final Options options) {
+        this.tasks = options.queue();
+        this.eagerRemoval = options.eagerRemoval();
         this.pool = new ForkJoinPool(parallelism, new PluginSchedulerWorkerThreadFactory(), null, false);
+        this.dispatcher = new PluginTaskDispatcher(this.pool, parallelism, options.asyncLimit(), options.weights());
+        this.virtualPool = VirtualThreadExecutor.create(DISTRIBUTOR_WORKER_BASE_NAME + "virtual-");
+        if (options.virtualThreads() && this.virtualPool == null) {
+            logger.warn("Virtual threads are not supported by this JVM, falling back to the worker pool.");
+        }
+        this.virtualThreads = options.virtualThreads();
         this.syncExecutor = syncExecutor;
+        this.syncBudget = options.syncBudget();
         this.source = source;
+        final var timerPeriod = options.timerPeriod();
+        if (timerPeriod > 0) {
+            this.timer = new Thread(() -> this.runTimer(timerPeriod), DISTRIBUTOR_WORKER_BASE_NAME + "timer");
+            this.timer.setDaemon(true);
+            this.timer.start();
+        } else {
+            this.timer = null;
+        }
     }
 
     @Override
@@ -57,47 +121,296 @@ public final class PluginSchedulerImpl implements PluginScheduler, PluginListene
         return new PluginTaskImpl.Builder(this, plugin);
     }
 
+    @Override
+    public <E, R> CompletionStage<R> parallelCollect(
+            final MindustryPlugin plugin,
+            final Collection<? extends E> elements,
+            final Collector<? super E, ?, R> collector) {
+        return this.collectInChunks(plugin, new ArrayList<>(elements), collector, getCallerName());
+    }
+
+    // The collectors being mostly the shared implementation of Collectors, the calling class identifies the tasks
+    private static String getCallerName() {
+        return CALLER_WALKER.walk(frames -> frames.map(StackWalker.StackFrame::getDeclaringClass)
+                .filter(clazz -> clazz != PluginSchedulerImpl.class && clazz != PluginScheduler.class)
+                .findFirst()
+                .map(Class::getName)
+                .orElse(PluginSchedulerImpl.class.getName()));
+    }
+
+    // Each chunk is collected by its own task, so the work is dispatched fairly like the other tasks of the plugin,
+    // unlike the subtasks of a parallel stream which would be forked directly in the worker pool
+    private <E, A, R> CompletionStage<R> collectInChunks(
+            final MindustryPlugin plugin,
+            final List<? extends E> elements,
+            final Collector<? super E, A, R> collector,
+            final String origin) {
+        final var count = Math.max(1, Math.min(this.pool.getParallelism(), elements.size()));
+        final List<CompletableFuture<A>> chunks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final var chunk = elements.subList(elements.size() * i / count, elements.size() * (i + 1) / count);
+            final var builder = new PluginTaskImpl.Builder(this, plugin);
+            builder.async(true).virtual(false);
+            final var task = builder.submit(
+                    () -> {
+                        final var container = collector.supplier().get();
+                        for (final E element : chunk) {
+                            collector.accumulator().accept(container, element);
+                        }
+                        return container;
+                    },
+                    origin);
+            chunks.add(task.toCompletionStage().toCompletableFuture());
+        }
+        return CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> {
+                    var container = chunks.get(0).join();
+                    for (int i = 1; i < chunks.size(); i++) {
+                        container = collector.combiner().apply(container, chunks.get(i).join());
+                    }
+                    return collector.finisher().apply(container);
+                })
+                .thenApplyAsync(Function.identity(), this::executeSync);
+    }
+
     @Override
     public void onPluginUpdate() {
-        while (!this.tasks.isEmpty()) {
-            final var task = this.tasks.peek();
+        if (this.mainThread == null) {
+            this.mainThread = Thread.currentThread();
+        }
+        this.poll();
+    }
+
+    // Synchronous tasks polled by the timer still run on the main thread, through the sync executor
+    private void runTimer(final long period) {
+        while (!this.isShutdown()) {
+            LockSupport.parkNanos(period);
+            try {
+                this.poll();
+            } catch (final Throwable e) {
+                logger.error("An error occurred while polling the tasks of the plugin scheduler.", e);
+            }
+        }
+    }
+
+    private void poll() {
+        synchronized (this.drainLock) {
+            this.drain();
+        }
+        if (!this.syncBacklog.isEmpty() && this.syncFlushPending.compareAndSet(false, true)) {
+            this.syncExecutor.execute(this::flushSyncBacklog);
+        }
+    }
+
+    private void drain() {
+        this.tasks.drain(this.source.getCurrentNanos(), task -> {
+            // Eagerly removed tasks may still be drained if the removal happened concurrently
+            final var state = task.queueState.getAndSet(PluginTaskImpl.NOT_QUEUED);
+            if (state == PluginTaskImpl.NOT_QUEUED) {
+                return;
+            }
+            // Only the tasks counted by onTaskCancelled are uncounted, a task cancelled concurrently never will be
+            if (state == PluginTaskImpl.QUEUED_CANCELLED) {
+                this.cancelled.decrement();
+                return;
+            }
             if (task.isCancelled()) {
-                this.tasks.remove();
-            } else if (task.getNextExecutionTime() < this.source.getCurrentTicks()) {
-                this.tasks.remove();
-                final Executor executor = task.isAsync() ? this.pool : this.syncExecutor;
-                executor.execute(task);
+                return;
+            }
+            if (!task.isAsync() && this.syncBudget > 0) {
+                this.syncBacklog.add(task);
             } else {
-                break;
+                this.execute(task);
             }
+        });
+    }
+
+    // Runs at least one task per tick to guarantee progress, even if a single task exceeds the budget
+    private void flushSyncBacklog() {
+        try {
+            final var start = System.nanoTime();
+            this.syncFlushStart = start;
+            PluginTaskImpl<?> task;
+            while ((task = this.syncBacklog.poll()) != null) {
+                task.run();
+                if (System.nanoTime() - start >= this.syncBudget && !this.syncBacklog.isEmpty()) {
+                    this.metrics.recordSyncBudgetExceeded();
+                    break;
+                }
+            }
+        } finally {
+            this.syncFlushPending.set(false);
         }
     }
 
+    @Override
+    public void onPluginServerCommandsRegistration(final CommandHandler handler) {
+        handler.register(
+                "scheduler-queues", "Show the asynchronous task queues of the plugin scheduler per plugin.", args -> {
+                    final var builder = new StringBuilder(String.format(
+                            "Plugin scheduler: scheduled=%d, cancelled=%d, sync-backlog=%d, sync-budget-exceeded=%d",
+                            this.getLiveTaskCount(),
+                            this.getCancelledTaskCount(),
+                            this.metrics.getSyncBacklogSize(),
+                            this.metrics.getSyncBudgetExceededCount()));
+                    this.getAsyncQueueStats().entrySet().stream()
+                            .sorted(Map.Entry.comparingByValue(
+                                    Comparator.comparingInt(PluginTaskDispatcher.PluginQueueStats::pending)
+                                            .reversed()))
+                            .forEach(entry -> builder.append(String.format(
+                                    "%n- %s: pending=%d, running=%d, weight=%d",
+                                    entry.getKey().getMetadata().getName(),
+                                    entry.getValue().pending(),
+                                    entry.getValue().running(),
+                                    entry.getValue().weight())));
+                    logger.info(builder.toString());
+                });
+        this.metrics.onPluginServerCommandsRegistration(handler);
+    }
+
     @Override
     public void onPluginExit() {
         logger.info("Shutting down scheduler.");
         this.pool.shutdown();
+        if (this.timer != null) {
+            LockSupport.unpark(this.timer);
+        }
+        if (this.virtualPool != null) {
+            this.virtualPool.shutdown();
+        }
         try {
-            if (!this.pool.awaitTermination(20, TimeUnit.SECONDS)) {
+            final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+            var terminated = this.pool.awaitTermination(20, TimeUnit.SECONDS);
+            if (this.virtualPool != null) {
+                terminated &= this.virtualPool.awaitTermination(
+                        Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+            if (!terminated) {
                 logger.error("Timed out waiting for the scheduler to terminate properly.");
                 Thread.getAllStackTraces().forEach((thread, stack) -> {
                     if (thread.getName().startsWith(DISTRIBUTOR_WORKER_BASE_NAME)) {
-                        logger.error(
-                                "Worker thread {} may be blocked, possibly the reason for the slow shutdown:\n{}",
-                                thread.getName(),
-                                Arrays.stream(stack).map(e -> "  " + e).collect(Collectors.joining("\n")));
+                        logWorkerStack(thread, stack);
                     }
                 });
+                if (this.virtualPool != null) {
+                    for (final var thread : this.virtualPool.getRunningThreads()) {
+                        logWorkerStack(thread, thread.getStackTrace());
+                    }
+                }
             }
         } catch (final InterruptedException e) {
             logger.error("The plugin scheduler shutdown have been interrupted.", e);
         }
     }
 
+    private static void logWorkerStack(final Thread thread, final StackTraceElement[] stack) {
+        logger.error(
+                "Worker thread {} may be blocked, possibly the reason for the slow shutdown:\n{}",
+                thread.getName(),
+                Arrays.stream(stack).map(e -> "  " + e).collect(Collectors.joining("\n")));
+    }
+
+    // Virtual threads are not bounded by the worker pool, so they don't need to be dispatched fairly
+    void execute(final PluginTaskImpl<?> task) {
+        if (!task.isAsync()) {
+            this.syncExecutor.execute(task);
+        } else if (task.isVirtual() && this.virtualPool != null) {
+            this.virtualPool.execute(task);
+        } else {
+            this.dispatcher.submit(task);
+        }
+    }
+
+    // Task continuations run in place when already on the main thread, skipping a round-trip in the executor
+    void executeSync(final Runnable runnable) {
+        if (Thread.currentThread() == this.mainThread) {
+            runnable.run();
+        } else {
+            this.syncExecutor.execute(runnable);
+        }
+    }
+
+    // Continuations on the worker pool are dispatched like the tasks of their plugin, so they count towards its limit
+    void executeAsync(final MindustryPlugin plugin, final Runnable runnable, final boolean virtual) {
+        if (virtual && this.virtualPool != null) {
+            this.virtualPool.execute(runnable);
+        } else {
+            this.dispatcher.submit(plugin, runnable);
+        }
+    }
+
+    // Whether the synchronous tasks exceeded the time budget of the current tick, always false without a budget
+    boolean isSyncBudgetExhausted() {
+        return this.syncBudget > 0 && System.nanoTime() - this.syncFlushStart >= this.syncBudget;
+    }
+
+    // Carries a synchronous task over to the backlog of the next tick, once the budget of the current one is spent
+    void deferSync(final PluginTaskImpl<?> task) {
+        this.syncBacklog.add(task);
+        if (this.syncFlushPending.compareAndSet(false, true)) {
+            this.syncExecutor.execute(this::flushSyncBacklog);
+        }
+    }
+
     void schedule(final PluginTaskImpl<?> task) {
+        task.queueState.set(PluginTaskImpl.QUEUED);
         this.tasks.add(task);
     }
 
+    // The count only changes with a successful transition of the queue state, so it can't drift with the drain
+    void onTaskCancelled(final PluginTaskImpl<?> task) {
+        if (this.eagerRemoval) {
+            if (task.queueState.compareAndSet(PluginTaskImpl.QUEUED, PluginTaskImpl.NOT_QUEUED)) {
+                this.tasks.remove(task);
+            }
+        } else if (task.queueState.compareAndSet(PluginTaskImpl.QUEUED, PluginTaskImpl.QUEUED_CANCELLED)) {
+            this.cancelled.increment();
+        }
+    }
+
+    /**
+     * Returns the number of pending tasks that are not cancelled.
+     */
+    public int getLiveTaskCount() {
+        return Math.max(0, this.tasks.size() - this.getCancelledTaskCount());
+    }
+
+    /**
+     * Returns the number of cancelled tasks still held by the scheduler, always zero with eager removal.
+     */
+    public int getCancelledTaskCount() {
+        // The sum of the adder is not an atomic snapshot, a concurrent increment and decrement can be seen out of order
+        return Math.max(0, this.cancelled.intValue());
+    }
+
+    /**
+     * Returns the execution metrics of the tasks of this scheduler.
+     */
+    public PluginSchedulerMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Returns the asynchronous tasks waiting for a worker thread or running, per plugin.
+     */
+    Map<MindustryPlugin, PluginTaskDispatcher.PluginQueueStats> getAsyncQueueStats() {
+        return this.dispatcher.getStats();
+    }
+
+    /**
+     * Returns an executor running its tasks on the worker pool of this scheduler, dispatched fairly like the
+     * asynchronous tasks of the given plugin.
+     *
+     * @param plugin the plugin owning the tasks
+     */
+    public Executor getAsyncExecutor(final MindustryPlugin plugin) {
+        return runnable -> this.dispatcher.submit(plugin, runnable);
+    }
+
+    boolean isVirtualThreadsByDefault() {
+        return this.virtualThreads;
+    }
+
     PluginTimeSource getTimeSource() {
         return this.source;
     }
@@ -106,6 +419,118 @@ public final class PluginSchedulerImpl implements PluginScheduler, PluginListene
         return this.pool.isShutdown();
     }
 
+    /**
+     * The options of a plugin scheduler.
+     *
+     * @param queue          the queue holding the pending tasks
+     * @param eagerRemoval   whether cancelled tasks are immediately removed from the queue, instead of being
+     *                       discarded once their execution time is reached, only worth it with the timing wheel
+     *                       queue since removing a task from the heap queue takes linear time
+     * @param virtualThreads whether asynchronous tasks run on virtual threads by default, if supported by the JVM
+     * @param syncBudget     the maximum time in nanoseconds spent per tick running synchronous tasks, the remaining
+     *                       ones being carried over to the next tick in execution time order, or zero for no limit
+     * @param asyncLimit     the maximum number of asynchronous tasks running at once per plugin, or zero for no limit
+     * @param weights        the number of asynchronous tasks a plugin can start in a row when the worker pool is
+     *                       contended, before yielding to the other plugins
+     * @param timerPeriod    the period in nanoseconds of a dedicated thread also polling the due tasks between ticks,
+     *                       so asynchronous tasks don't wait for the next tick, or zero to only poll them on ticks.
+     *                       Only useful with a time source more precise than ticks, such as
+     *                       {@link PluginTimeSource#monotonic()}
+     */
+    public record Options(
+            PluginTaskQueue queue,
+            boolean eagerRemoval,
+            boolean virtualThreads,
+            long syncBudget,
+            int asyncLimit,
+            ToIntFunction<MindustryPlugin> weights,
+            long timerPeriod) {
+
+        /**
+         * Returns the default options, with a new heap queue and every feature disabled.
+         */
+        public static Options defaults() {
+            return new Options(PluginTaskQueue.heap(), false, false, 0L, 0, plugin -> 1, 0L);
+        }
+
+        public Options withQueue(final PluginTaskQueue queue) {
+            return new Options(
+                    queue,
+                    this.eagerRemoval,
+                    this.virtualThreads,
+                    this.syncBudget,
+                    this.asyncLimit,
+                    this.weights,
+                    this.timerPeriod);
+        }
+
+        public Options withEagerRemoval(final boolean eagerRemoval) {
+            return new Options(
+                    this.queue,
+                    eagerRemoval,
+                    this.virtualThreads,
+                    this.syncBudget,
+                    this.asyncLimit,
+                    this.weights,
+                    this.timerPeriod);
+        }
+
+        public Options withVirtualThreads(final boolean virtualThreads) {
+            return new Options(
+                    this.queue,
+                    this.eagerRemoval,
+                    virtualThreads,
+                    this.syncBudget,
+                    this.asyncLimit,
+                    this.weights,
+                    this.timerPeriod);
+        }
+
+        public Options withSyncBudget(final long syncBudget) {
+            return new Options(
+                    this.queue,
+                    this.eagerRemoval,
+                    this.virtualThreads,
+                    syncBudget,
+                    this.asyncLimit,
+                    this.weights,
+                    this.timerPeriod);
+        }
+
+        public Options withAsyncLimit(final int asyncLimit) {
+            return new Options(
+                    this.queue,
+                    this.eagerRemoval,
+                    this.virtualThreads,
+                    this.syncBudget,
+                    asyncLimit,
+                    this.weights,
+                    this.timerPeriod);
+        }
+
+        public Options withWeights(final ToIntFunction<MindustryPlugin> weights) {
+            return new Options(
+                    this.queue,
+                    this.eagerRemoval,
+                    this.virtualThreads,
+                    this.syncBudget,
+                    this.asyncLimit,
+                    weights,
+                    this.timerPeriod);
+        }
+
+        public Options withTimerPeriod(final long timerPeriod) {
+            return new Options(
+                    this.queue,
+                    this.eagerRemoval,
+                    this.virtualThreads,
+                    this.syncBudget,
+                    this.asyncLimit,
+                    this.weights,
+                    timerPeriod);
+        }
+    }
+
     private static final class PluginSchedulerWorkerThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
 
         private static final AtomicInteger COUNT = new AtomicInteger(0);
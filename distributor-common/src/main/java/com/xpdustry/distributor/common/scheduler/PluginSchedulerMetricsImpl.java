@@ -0,0 +1,155 @@
+/*
+ * Distributor, a feature-rich framework for Mindustry plugins.
+ *
+ * Copyright (C) 2024 Xpdustry
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.xpdustry.distributor.common.scheduler;
+
+import com.xpdustry.distributor.api.plugin.MindustryPlugin;
+import com.xpdustry.distributor.api.scheduler.PluginSchedulerMetrics;
+import com.xpdustry.distributor.api.scheduler.PluginTaskMetrics;
+import com.xpdustry.distributor.common.metrics.AbstractPluginMetrics;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+final class PluginSchedulerMetricsImpl extends AbstractPluginMetrics<PluginTaskMetrics>
+        implements PluginSchedulerMetrics {
+
+    private final Map<CountersKey, Counters> counters = new ConcurrentHashMap<>();
+    private final LongAdder syncBudgetExceeded = new LongAdder();
+    private final IntSupplier syncBacklogSize;
+
+    PluginSchedulerMetricsImpl(final IntSupplier syncBacklogSize) {
+        super("scheduler-stats", "plugin scheduler task");
+        this.syncBacklogSize = syncBacklogSize;
+    }
+
+    @Override
+    public List<PluginTaskMetrics> getTaskMetrics() {
+        return this.counters.entrySet().stream()
+                .map(entry -> entry.getValue().snapshot(entry.getKey()))
+                .filter(metrics -> metrics.getExecutionTime().getCount() > 0)
+                .sorted(Comparator.comparing(
+                                (PluginTaskMetrics metrics) -> metrics.getExecutionTime().getTotal())
+                        .reversed())
+                .toList();
+    }
+
+    @Override
+    public int getSyncBacklogSize() {
+        return this.syncBacklogSize.getAsInt();
+    }
+
+    @Override
+    public long getSyncBudgetExceededCount() {
+        return this.syncBudgetExceeded.sum();
+    }
+
+    @Override
+    public void reset() {
+        this.counters.values().forEach(Counters::reset);
+        this.syncBudgetExceeded.reset();
+    }
+
+    @Override
+    public void reset(final MindustryPlugin plugin) {
+        this.counters.keySet().removeIf(key -> key.plugin() == plugin);
+    }
+
+    @Override
+    protected List<PluginTaskMetrics> getMetrics() {
+        return this.getTaskMetrics();
+    }
+
+    @Override
+    protected String getSummary() {
+        return String.format(
+                "sync-backlog=%d, sync-budget-exceeded=%d",
+                this.getSyncBacklogSize(),
+                this.getSyncBudgetExceededCount());
+    }
+
+    @Override
+    protected String format(final PluginTaskMetrics metrics) {
+        final var time = metrics.getExecutionTime();
+        final var lag = metrics.getSchedulingLag();
+        return String.format(
+                "%s: %s (%s), runs=%d, total=%.3fms, p50=%.3fms, p99=%.3fms, max=%.3fms, "
+                        + "lag-p99=%.3fms, lag-max=%.3fms, errors=%d",
+                metrics.getPlugin().getMetadata().getName(),
+                metrics.getOrigin(),
+                metrics.isAsync() ? "async" : "sync",
+                time.getCount(),
+                toMillis(time.getTotal()),
+                toMillis(time.getMedian()),
+                toMillis(time.getP99()),
+                toMillis(time.getMax()),
+                toMillis(lag.getP99()),
+                toMillis(lag.getMax()),
+                metrics.getExceptionCount());
+    }
+
+    void recordSyncBudgetExceeded() {
+        this.syncBudgetExceeded.increment();
+    }
+
+    Counters getCounters(final MindustryPlugin plugin, final String origin, final boolean async) {
+        return this.counters.computeIfAbsent(new CountersKey(plugin, origin, async), key -> new Counters());
+    }
+
+    private static double toMillis(final Duration duration) {
+        return duration.toNanos() / 1_000_000D;
+    }
+
+    private record CountersKey(MindustryPlugin plugin, String origin, boolean async) {}
+
+    static final class Counters {
+
+        private final LatencyHistogram executionTime = new LatencyHistogram();
+        private final LatencyHistogram schedulingLag = new LatencyHistogram();
+        private final LongAdder exceptions = new LongAdder();
+
+        void record(final long nanos, final long lag) {
+            this.executionTime.record(nanos);
+            this.schedulingLag.record(lag);
+        }
+
+        void recordException() {
+            this.exceptions.increment();
+        }
+
+        private void reset() {
+            this.executionTime.reset();
+            this.schedulingLag.reset();
+            this.exceptions.reset();
+        }
+
+        private PluginTaskMetrics snapshot(final CountersKey key) {
+            return PluginTaskMetrics.of(
+                    key.plugin(),
+                    key.origin(),
+                    key.async(),
+                    this.executionTime.snapshot(),
+                    this.schedulingLag.snapshot(),
+                    this.exceptions.sum());
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Distributor, a feature-rich framework for Mindustry plugins.
+ *
+ * Copyright (C) 2024 Xpdustry
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.xpdustry.distributor.common.scheduler;
+
+import com.xpdustry.distributor.api.plugin.MindustryPlugin;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.ToIntFunction;
+
+// Dispatches the asynchronous tasks, their continuations and the other asynchronous work of the plugins to the worker
+// pool fairly between plugins.
+// Each plugin has its own queue of due tasks, drained in weighted round-robin, a plugin dispatching up to its weight
+// in tasks before the next one gets its turn. The number of dispatched tasks is bounded by the parallelism of the pool,
+// so the pending tasks stay in the queues of their plugins instead of piling up in the pool in arrival order.
+final class PluginTaskDispatcher {
+
+    private final Executor executor;
+    private final int parallelism;
+    private final int limit;
+    private final ToIntFunction<MindustryPlugin> weights;
+    private final Map<MindustryPlugin, PluginQueue> queues = new HashMap<>();
+    // The queues with dispatchable tasks, in round-robin order
+    private final Queue<PluginQueue> ready = new ArrayDeque<>();
+    private int running = 0;
+
+    /**
+     * Creates a new dispatcher.
+     *
+     * @param executor    the executor running the tasks
+     * @param parallelism the maximum number of tasks running at once
+     * @param limit       the maximum number of tasks running at once per plugin, or zero for no limit
+     * @param weights     the number of tasks a plugin dispatches per turn, at least one
+     */
+    PluginTaskDispatcher(
+            final Executor executor,
+            final int parallelism,
+            final int limit,
+            final ToIntFunction<MindustryPlugin> weights) {
+        this.executor = executor;
+        this.parallelism = Math.max(1, parallelism);
+        this.limit = limit > 0 ? limit : Integer.MAX_VALUE;
+        this.weights = weights;
+    }
+
+    void submit(final PluginTaskImpl<?> task) {
+        this.submit(task.getPlugin(), task);
+    }
+
+    void submit(final MindustryPlugin plugin, final Runnable runnable) {
+        synchronized (this) {
+            final var queue = this.queues.computeIfAbsent(
+                    plugin, key -> new PluginQueue(Math.max(1, this.weights.applyAsInt(key))));
+            queue.tasks.add(runnable);
+            this.markReady(queue);
+        }
+        this.dispatch();
+    }
+
+    private void dispatch() {
+        final List<DispatchedTask> dispatched = new ArrayList<>();
+        synchronized (this) {
+            while (this.running < this.parallelism && !this.ready.isEmpty()) {
+                final var queue = this.ready.element();
+                final var task = queue.tasks.remove();
+                queue.running++;
+                this.running++;
+                dispatched.add(new DispatchedTask(queue, task));
+                if (queue.tasks.isEmpty() || queue.running >= this.limit) {
+                    this.ready.remove();
+                    queue.ready = false;
+                    queue.credits = queue.weight;
+                } else if (--queue.credits == 0) {
+                    this.ready.add(this.ready.remove());
+                    queue.credits = queue.weight;
+                }
+            }
+        }
+        // Executed outside the lock since the executor may run the tasks in place
+        for (int i = 0; i < dispatched.size(); i++) {
+            try {
+                this.executor.execute(dispatched.get(i));
+            } catch (final RejectedExecutionException e) {
+                // The executor is shut down, the remaining tasks will never run
+                for (final var remaining : dispatched.subList(i, dispatched.size())) {
+                    reject(remaining.task);
+                }
+                this.rejectAll();
+                return;
+            }
+        }
+    }
+
+    private void rejectAll() {
+        final List<Runnable> rejected = new ArrayList<>();
+        synchronized (this) {
+            for (final var queue : this.queues.values()) {
+                rejected.addAll(queue.tasks);
+                queue.tasks.clear();
+            }
+        }
+        rejected.forEach(PluginTaskDispatcher::reject);
+    }
+
+    // Tasks are cancelled, while the other work runs in place so the futures waiting for it still complete
+    private static void reject(final Runnable runnable) {
+        if (runnable instanceof PluginTaskImpl<?> task) {
+            task.cancel(false);
+        } else {
+            runnable.run();
+        }
+    }
+
+    private void onTaskCompleted(final PluginQueue queue) {
+        synchronized (this) {
+            queue.running--;
+            this.running--;
+            this.markReady(queue);
+        }
+        this.dispatch();
+    }
+
+    private void markReady(final PluginQueue queue) {
+        if (!queue.ready && !queue.tasks.isEmpty() && queue.running < this.limit) {
+            queue.ready = true;
+            this.ready.add(queue);
+        }
+    }
+
+    synchronized Map<MindustryPlugin, PluginQueueStats> getStats() {
+        final Map<MindustryPlugin, PluginQueueStats> stats = new HashMap<>();
+        this.queues.forEach((plugin, queue) -> {
+            if (!queue.tasks.isEmpty() || queue.running > 0) {
+                stats.put(plugin, new PluginQueueStats(queue.tasks.size(), queue.running, queue.weight));
+            }
+        });
+        return stats;
+    }
+
+    record PluginQueueStats(int pending, int running, int weight) {}
+
+    private final class DispatchedTask implements Runnable {
+
+        private final PluginQueue queue;
+        private final Runnable task;
+
+        private DispatchedTask(final PluginQueue queue, final Runnable task) {
+            this.queue = queue;
+            this.task = task;
+        }
+
+        @Override
+        public void run() {
+            try {
+                this.task.run();
+            } finally {
+                PluginTaskDispatcher.this.onTaskCompleted(this.queue);
+            }
+        }
+    }
+
+    private static final class PluginQueue {
+
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+        private final int weight;
+        private int credits;
+        private int running = 0;
+        private boolean ready = false;
+
+        private PluginQueue(final int weight) {
+            this.weight = weight;
+            this.credits = weight;
+        }
+    }
+}
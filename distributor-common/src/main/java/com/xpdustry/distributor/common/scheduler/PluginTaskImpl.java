@@ -21,47 +21,194 @@ package com.xpdustry.distributor.common.scheduler;
 import com.xpdustry.distributor.api.plugin.MindustryPlugin;
 import com.xpdustry.distributor.api.scheduler.Cancellable;
 import com.xpdustry.distributor.api.scheduler.MindustryTimeUnit;
+import com.xpdustry.distributor.api.scheduler.MissedRunPolicy;
 import com.xpdustry.distributor.api.scheduler.PluginTask;
 import java.util.Objects;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import org.jspecify.annotations.Nullable;
 
 final class PluginTaskImpl<V> extends FutureTask<V> implements PluginTask<V> {
 
+    static final int NOT_QUEUED = 0;
+    static final int QUEUED = 1;
+    static final int QUEUED_CANCELLED = 2;
+    // The maximum number of missed executions run in a row by a task catching up, the others being skipped
+    static final int MAX_CATCH_UP_RUNS = 32;
+
     private final MindustryPlugin plugin;
     private final boolean async;
+    private final boolean virtual;
+    // The period and next execution time are in nanoseconds
     private final long period;
+    private final @Nullable MissedRunPolicy policy;
     private final PluginSchedulerImpl scheduler;
+    // Either the name of the task or the scheduled object, the origin being resolved on the first recorded run
+    private final Object origin;
+    private PluginSchedulerMetricsImpl.@Nullable Counters counters = null;
     private long nextRun;
+    private int catchUpRuns = 0;
+    // Lazily created, most tasks are never composed
+    private volatile @Nullable CompletableFuture<V> stage = null;
+    // Whether the task is held by the queue of the scheduler, and if it has been counted as cancelled while queued
+    final AtomicInteger queueState = new AtomicInteger(NOT_QUEUED);
+
+    // Intrusive links of the timing wheel, guarded by the wheel
+    @Nullable PluginTaskImpl<?> previous = null;
+    @Nullable PluginTaskImpl<?> next = null;
+    int slot = -1;
 
     private PluginTaskImpl(
             final MindustryPlugin plugin,
             final Callable<V> callable,
             final boolean async,
+            final boolean virtual,
             final long period,
-            final PluginSchedulerImpl scheduler) {
+            final @Nullable MissedRunPolicy policy,
+            final PluginSchedulerImpl scheduler,
+            final Object origin) {
         super(callable);
         this.plugin = plugin;
         this.async = async;
+        this.virtual = virtual;
         this.period = period;
+        this.policy = policy;
         this.scheduler = scheduler;
+        this.origin = origin;
     }
 
     @Override
     public void run() {
+        final var metrics = this.scheduler.metrics;
+        if (!metrics.isEnabled()) {
+            this.runTask();
+            return;
+        }
+        final var lag = this.scheduler.getTimeSource().getCurrentNanos() - this.nextRun;
+        final var start = System.nanoTime();
+        try {
+            this.runTask();
+        } finally {
+            this.getCounters(metrics).record(System.nanoTime() - start, lag);
+        }
+    }
+
+    private void runTask() {
         if (this.scheduler.isShutdown()
                 && (this.period == 0
-                        || this.nextRun - this.scheduler.getTimeSource().getCurrentTicks() > 0)) {
+                        || this.nextRun - this.scheduler.getTimeSource().getCurrentNanos() > 0)) {
             this.cancel(false);
         } else if (this.period == 0) {
             super.run();
-        } else if (super.runAndReset()) {
-            this.nextRun = this.scheduler.getTimeSource().getCurrentTicks() + this.period;
+        } else if (this.policy == null) {
+            if (super.runAndReset()) {
+                this.nextRun = this.scheduler.getTimeSource().getCurrentNanos() + this.period;
+                this.scheduler.schedule(this);
+            }
+        } else {
+            this.runAtFixedRate(this.policy);
+        }
+    }
+
+    private void runAtFixedRate(final MissedRunPolicy policy) {
+        while (super.runAndReset()) {
+            this.nextRun += this.period;
+            final var now = this.scheduler.getTimeSource().getCurrentNanos();
+            if (this.nextRun < now) {
+                // The missed executions are run in place, so periods shorter than a tick can catch up within it
+                if (policy == MissedRunPolicy.CATCH_UP && this.catchUpRuns < MAX_CATCH_UP_RUNS) {
+                    if (this.scheduler.isShutdown()) {
+                        return;
+                    }
+                    this.catchUpRuns++;
+                    // Synchronous tasks resume on the next tick once the time budget of the current one is spent
+                    if (!this.async && this.scheduler.isSyncBudgetExhausted()) {
+                        this.scheduler.deferSync(this);
+                        return;
+                    }
+                    continue;
+                }
+                // Moves to the first execution time of the cadence that isn't due yet, also once too many
+                // executions have been missed to catch up with all of them
+                this.nextRun += (now - this.nextRun + this.period - 1) / this.period * this.period;
+            }
+            this.catchUpRuns = 0;
             this.scheduler.schedule(this);
+            return;
+        }
+    }
+
+    @Override
+    public boolean cancel(final boolean mayInterruptIfRunning) {
+        final var cancelled = super.cancel(mayInterruptIfRunning);
+        if (cancelled) {
+            this.scheduler.onTaskCancelled(this);
+        }
+        return cancelled;
+    }
+
+    @Override
+    public CompletionStage<V> toCompletionStage() {
+        return this.getStage().minimalCompletionStage();
+    }
+
+    @Override
+    public <R> CompletionStage<R> thenApplySync(final Function<? super V, ? extends R> function) {
+        return this.getStage().thenApplyAsync(function, this.scheduler::executeSync);
+    }
+
+    @Override
+    public <R> CompletionStage<R> thenApplyAsync(final Function<? super V, ? extends R> function) {
+        return this.getStage()
+                .thenApplyAsync(function, runnable -> this.scheduler.executeAsync(this.plugin, runnable, this.virtual));
+    }
+
+    private CompletableFuture<V> getStage() {
+        var stage = this.stage;
+        if (stage == null) {
+            synchronized (this) {
+                stage = this.stage;
+                if (stage == null) {
+                    stage = new CompletableFuture<>();
+                    this.stage = stage;
+                }
+            }
+            // Completes the stage if the task finished before its creation, done() having missed it
+            if (this.isDone()) {
+                this.complete(stage);
+            }
+        }
+        return stage;
+    }
+
+    @Override
+    protected void done() {
+        final var stage = this.stage;
+        if (stage != null) {
+            this.complete(stage);
+        }
+    }
+
+    private void complete(final CompletableFuture<V> stage) {
+        if (this.isCancelled()) {
+            stage.cancel(false);
+            return;
+        }
+        try {
+            stage.complete(this.get());
+        } catch (final ExecutionException e) {
+            stage.completeExceptionally(e.getCause());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stage.completeExceptionally(e);
         }
     }
 
@@ -70,14 +217,40 @@ final class PluginTaskImpl<V> extends FutureTask<V> implements PluginTask<V> {
         return this.async;
     }
 
+    boolean isVirtual() {
+        return this.virtual;
+    }
+
     @Override
     public MindustryPlugin getPlugin() {
         return this.plugin;
     }
 
+    private PluginSchedulerMetricsImpl.Counters getCounters(final PluginSchedulerMetricsImpl metrics) {
+        var counters = this.counters;
+        if (counters == null) {
+            final String origin;
+            if (this.origin instanceof String name) {
+                origin = name;
+            } else {
+                // Lambdas are named after their enclosing class, suffixed by $$Lambda
+                final var name = this.origin.getClass().getName();
+                final var index = name.indexOf("$$Lambda");
+                origin = index == -1 ? name : name.substring(0, index);
+            }
+            counters = metrics.getCounters(this.plugin, origin, this.async);
+            this.counters = counters;
+        }
+        return counters;
+    }
+
     @Override
     protected void setException(final Throwable throwable) {
         super.setException(throwable);
+        final var metrics = this.scheduler.metrics;
+        if (metrics.isEnabled()) {
+            this.getCounters(metrics).recordException();
+        }
         this.plugin
                 .getLogger()
                 .error(
@@ -95,12 +268,16 @@ final class PluginTaskImpl<V> extends FutureTask<V> implements PluginTask<V> {
         private final PluginSchedulerImpl scheduler;
         private final MindustryPlugin plugin;
         private boolean async;
+        private boolean virtual;
+        private @Nullable String name = null;
         private long delay = 0;
         private long repeat = 0;
+        private @Nullable MissedRunPolicy policy = null;
 
         public Builder(final PluginSchedulerImpl scheduler, final MindustryPlugin plugin) {
             this.scheduler = scheduler;
             this.plugin = plugin;
+            this.virtual = scheduler.isVirtualThreadsByDefault();
         }
 
         @Override
@@ -109,22 +286,66 @@ final class PluginTaskImpl<V> extends FutureTask<V> implements PluginTask<V> {
             return this;
         }
 
+        @Override
+        public PluginTask.Builder virtual(final boolean virtual) {
+            this.virtual = virtual;
+            return this;
+        }
+
+        @Override
+        public PluginTask.Builder name(final String name) {
+            this.name = name;
+            return this;
+        }
+
         @Override
         public PluginTask.Builder delay(final long delay, final MindustryTimeUnit unit) {
-            this.delay = MindustryTimeUnit.TICKS.convert(delay, unit);
+            this.delay = toNanos(delay, unit);
             return this;
         }
 
         @Override
         public PluginTask.Builder repeat(final long interval, final MindustryTimeUnit unit) {
-            this.repeat = MindustryTimeUnit.TICKS.convert(interval, unit);
+            this.repeat = toPeriod(interval, unit);
+            this.policy = null;
+            return this;
+        }
+
+        @Override
+        public PluginTask.Builder repeatAtFixedRate(
+                final long interval, final MindustryTimeUnit unit, final MissedRunPolicy policy) {
+            this.repeat = toPeriod(interval, unit);
+            this.policy = policy;
             return this;
         }
 
+        // Intervals too short to be represented are rounded up instead of being truncated to a single execution
+        private static long toPeriod(final long interval, final MindustryTimeUnit unit) {
+            return interval > 0 ? Math.max(1L, toNanos(interval, unit)) : 0L;
+        }
+
+        // Ticks are rounded up, so a task delayed by a tick is never due before the time source reaches the next tick
+        private static long toNanos(final long duration, final MindustryTimeUnit unit) {
+            final var nanos = MindustryTimeUnit.NANOSECONDS.convert(duration, unit);
+            if (unit == MindustryTimeUnit.TICKS
+                    && nanos != Long.MAX_VALUE
+                    && MindustryTimeUnit.TICKS.convert(nanos, MindustryTimeUnit.NANOSECONDS) < duration) {
+                return nanos + 1L;
+            }
+            return nanos;
+        }
+
         @Override
         public PluginTask<Void> execute(final Runnable runnable) {
             final var task = new PluginTaskImpl<Void>(
-                    this.plugin, Executors.callable(runnable, null), this.async, this.repeat, this.scheduler);
+                    this.plugin,
+                    Executors.callable(runnable, null),
+                    this.async,
+                    this.virtual,
+                    this.repeat,
+                    this.policy,
+                    this.scheduler,
+                    this.getOrigin(runnable));
             return this.schedule(task);
         }
 
@@ -135,20 +356,51 @@ final class PluginTaskImpl<V> extends FutureTask<V> implements PluginTask<V> {
                     this.plugin,
                     Executors.callable(() -> consumer.accept(cancellable), null),
                     this.async,
+                    this.virtual,
                     this.repeat,
-                    this.scheduler);
+                    this.policy,
+                    this.scheduler,
+                    this.getOrigin(consumer));
             cancellable.task = task;
             return this.schedule(task);
         }
 
         @Override
         public <V> PluginTask<V> execute(final Supplier<V> supplier) {
-            final var task = new PluginTaskImpl<>(this.plugin, supplier::get, this.async, this.repeat, this.scheduler);
+            final var task = new PluginTaskImpl<>(
+                    this.plugin,
+                    supplier::get,
+                    this.async,
+                    this.virtual,
+                    this.repeat,
+                    this.policy,
+                    this.scheduler,
+                    this.getOrigin(supplier));
             return this.schedule(task);
         }
 
+        // Runs the task right away, skipping the queue of the scheduler
+        <V> PluginTaskImpl<V> submit(final Supplier<V> supplier, final Object origin) {
+            final var task = new PluginTaskImpl<>(
+                    this.plugin,
+                    supplier::get,
+                    this.async,
+                    this.virtual,
+                    0L,
+                    null,
+                    this.scheduler,
+                    this.getOrigin(origin));
+            task.nextRun = this.scheduler.getTimeSource().getCurrentNanos();
+            this.scheduler.execute(task);
+            return task;
+        }
+
+        private Object getOrigin(final Object task) {
+            return this.name != null ? this.name : task;
+        }
+
         private <V> PluginTaskImpl<V> schedule(final PluginTaskImpl<V> task) {
-            task.nextRun = this.scheduler.getTimeSource().getCurrentTicks() + this.delay;
+            task.nextRun = this.scheduler.getTimeSource().getCurrentNanos() + this.delay;
             this.scheduler.schedule(task);
             return task;
         }
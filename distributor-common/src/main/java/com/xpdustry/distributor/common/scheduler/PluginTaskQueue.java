@@ -0,0 +1,66 @@
+/*
+ * Distributor, a feature-rich framework for Mindustry plugins.
+ *
+ * Copyright (C) 2024 Xpdustry
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.xpdustry.distributor.common.scheduler;
+
+import java.util.function.Consumer;
+
+/**
+ * The data structure holding the pending tasks of a {@link PluginSchedulerImpl}, ordered by execution time.
+ */
+public abstract sealed class PluginTaskQueue permits HeapPluginTaskQueue, TimingWheelPluginTaskQueue {
+
+    /**
+     * Returns a {@code PluginTaskQueue} backed by a binary heap, with a logarithmic insertion and removal of the next
+     * task, but a linear removal of an arbitrary task, such as an eagerly removed cancelled task.
+     */
+    public static PluginTaskQueue heap() {
+        return new HeapPluginTaskQueue();
+    }
+
+    /**
+     * Returns a {@code PluginTaskQueue} backed by a hierarchical timing wheel, with a constant insertion and removal.
+     * Better suited for a large amount of tasks, such as per player repeating tasks.
+     */
+    public static PluginTaskQueue timingWheel() {
+        return new TimingWheelPluginTaskQueue();
+    }
+
+    PluginTaskQueue() {}
+
+    /**
+     * Adds a task to this queue, to be executed once its next execution time is reached.
+     */
+    abstract void add(final PluginTaskImpl<?> task);
+
+    /**
+     * Removes a task from this queue, does nothing if the task is not in this queue.
+     */
+    abstract void remove(final PluginTaskImpl<?> task);
+
+    /**
+     * Removes the tasks whose next execution time is before the given time in nanoseconds and passes them to the
+     * consumer, in execution time order up to the resolution of the queue. Cancelled tasks may be passed earlier.
+     */
+    abstract void drain(final long now, final Consumer<PluginTaskImpl<?>> consumer);
+
+    /**
+     * Returns the number of tasks in this queue.
+     */
+    abstract int size();
+}
@@ -19,9 +19,10 @@
 package com.xpdustry.distributor.common.scheduler;
 
 import arc.util.Time;
+import com.xpdustry.distributor.api.scheduler.MindustryTimeUnit;
 
 /**
- * A {@code PluginTimeSource} provides the current time in milliseconds.
+ * A {@code PluginTimeSource} provides the current time in ticks, and optionally with a nanosecond precision.
  */
 @FunctionalInterface
 public interface PluginTimeSource {
@@ -40,5 +41,20 @@ public interface PluginTimeSource {
         return () -> System.currentTimeMillis() / 16L;
     }
 
+    /**
+     * Returns a {@code PluginTimeSource} using {@link System#nanoTime()} to provide the current time.
+     * Unlike the other sources, it is monotonic and keeps its nanosecond precision.
+     */
+    static PluginTimeSource monotonic() {
+        return MonotonicPluginTimeSource.INSTANCE;
+    }
+
     long getCurrentTicks();
+
+    /**
+     * Returns the current time in nanoseconds. By default, it is converted from {@link #getCurrentTicks()}.
+     */
+    default long getCurrentNanos() {
+        return MindustryTimeUnit.NANOSECONDS.convert(this.getCurrentTicks(), MindustryTimeUnit.TICKS);
+    }
 }
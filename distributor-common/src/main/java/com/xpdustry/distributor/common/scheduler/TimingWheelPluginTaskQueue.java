@@ -0,0 +1,214 @@
+/*
+ * Distributor, a feature-rich framework for Mindustry plugins.
+ *
+ * Copyright (C) 2024 Xpdustry
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.xpdustry.distributor.common.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.jspecify.annotations.Nullable;
+
+// A hierarchical timing wheel with 4 levels of 64 slots, each slot of a level spanning a full turn of the level below.
+// The slots of the first level span a millisecond, the execution times being in nanoseconds.
+// Tasks are stored in intrusive doubly linked lists, so adding and removing them is done in constant time.
+// On each drain, the slots of the elapsed milliseconds are fired one by one, a slot of an upper level being cascaded
+// into the lower levels once the lower levels completed a turn. The slot of the current millisecond is only partially
+// fired, with the tasks that are already due. Tasks beyond the last level are parked in its farthest slot and
+// cascaded again when reached.
+final class TimingWheelPluginTaskQueue extends PluginTaskQueue {
+
+    private static final long RESOLUTION = 1_000_000L;
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELTA = (1L << (SLOT_BITS * LEVELS)) - 1;
+    // Tasks whose execution time has already passed when added
+    private static final int OVERDUE = LEVELS * SLOTS;
+    // Tasks added before the first drain, when the current time is still unknown
+    private static final int PENDING = OVERDUE + 1;
+
+    private final @Nullable PluginTaskImpl<?>[] heads = new PluginTaskImpl<?>[PENDING + 1];
+    private final @Nullable PluginTaskImpl<?>[] tails = new PluginTaskImpl<?>[PENDING + 1];
+    private final int[] counts = new int[LEVELS];
+    private final List<PluginTaskImpl<?>> due = new ArrayList<>();
+    private boolean started = false;
+    private long current = 0L;
+    private int size = 0;
+
+    @Override
+    synchronized void add(final PluginTaskImpl<?> task) {
+        if (task.slot != -1) {
+            return;
+        }
+        this.insert(task);
+        this.size++;
+    }
+
+    @Override
+    synchronized void remove(final PluginTaskImpl<?> task) {
+        if (task.slot == -1) {
+            return;
+        }
+        this.unlink(task);
+        this.size--;
+    }
+
+    @Override
+    void drain(final long now, final Consumer<PluginTaskImpl<?>> consumer) {
+        synchronized (this) {
+            final var target = Math.floorDiv(now, RESOLUTION);
+            if (!this.started) {
+                this.started = true;
+                this.current = target;
+                this.cascade(PENDING);
+            }
+            this.collect(OVERDUE);
+            while (this.current < target) {
+                if (this.size == 0) {
+                    this.current = target;
+                    break;
+                }
+                this.cascadeCurrent();
+                if (this.counts[0] == 0) {
+                    // Nothing to fire until the next cascade
+                    this.current = Math.min(target, (this.current | SLOT_MASK) + 1);
+                    continue;
+                }
+                this.collect(getIndex(0, this.current));
+                this.current++;
+            }
+            if (this.size != 0) {
+                // Cascading the same slot again on the next drain is harmless, the tasks keep their position
+                this.cascadeCurrent();
+                this.collect(getIndex(0, this.current), now);
+            }
+        }
+        // Executed outside the lock since synchronous tasks can be run and rescheduled in place
+        try {
+            for (final var task : this.due) {
+                consumer.accept(task);
+            }
+        } finally {
+            this.due.clear();
+        }
+    }
+
+    @Override
+    synchronized int size() {
+        return this.size;
+    }
+
+    private void insert(final PluginTaskImpl<?> task) {
+        final var time = Math.floorDiv(task.getNextExecutionTime(), RESOLUTION);
+        final int index;
+        if (!this.started) {
+            index = PENDING;
+        } else if (time < this.current) {
+            index = OVERDUE;
+        } else {
+            final var delta = time - this.current;
+            int level = 0;
+            while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+                level++;
+            }
+            index = getIndex(level, delta > MAX_DELTA ? this.current + MAX_DELTA : time);
+            this.counts[level]++;
+        }
+        this.link(index, task);
+    }
+
+    private void cascadeCurrent() {
+        for (int level = LEVELS - 1; level > 0; level--) {
+            if ((this.current & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                this.cascade(getIndex(level, this.current));
+            }
+        }
+    }
+
+    private void cascade(final int index) {
+        var task = this.heads[index];
+        while (task != null) {
+            final var next = task.next;
+            this.unlink(task);
+            this.insert(task);
+            task = next;
+        }
+    }
+
+    private void collect(final int index) {
+        var task = this.heads[index];
+        while (task != null) {
+            final var next = task.next;
+            this.unlink(task);
+            this.due.add(task);
+            this.size--;
+            task = next;
+        }
+    }
+
+    private void collect(final int index, final long now) {
+        var task = this.heads[index];
+        while (task != null) {
+            final var next = task.next;
+            if (task.getNextExecutionTime() < now || task.isCancelled()) {
+                this.unlink(task);
+                this.due.add(task);
+                this.size--;
+            }
+            task = next;
+        }
+    }
+
+    private void link(final int index, final PluginTaskImpl<?> task) {
+        final var tail = this.tails[index];
+        task.slot = index;
+        task.previous = tail;
+        task.next = null;
+        if (tail == null) {
+            this.heads[index] = task;
+        } else {
+            tail.next = task;
+        }
+        this.tails[index] = task;
+    }
+
+    private void unlink(final PluginTaskImpl<?> task) {
+        final var index = task.slot;
+        if (task.previous == null) {
+            this.heads[index] = task.next;
+        } else {
+            task.previous.next = task.next;
+        }
+        if (task.next == null) {
+            this.tails[index] = task.previous;
+        } else {
+            task.next.previous = task.previous;
+        }
+        if (index < OVERDUE) {
+            this.counts[index / SLOTS]--;
+        }
+        task.slot = -1;
+        task.previous = null;
+        task.next = null;
+    }
+
+    private static int getIndex(final int level, final long time) {
+        return level * SLOTS + (int) ((time >> (SLOT_BITS * level)) & SLOT_MASK);
+    }
+}
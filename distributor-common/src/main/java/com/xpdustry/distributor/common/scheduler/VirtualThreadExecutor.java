@@ -0,0 +1,92 @@
+/*
+ * Distributor, a feature-rich framework for Mindustry plugins.
+ *
+ * Copyright (C) 2024 Xpdustry
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.xpdustry.distributor.common.scheduler;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import org.jspecify.annotations.Nullable;
+
+// Runs each task on its own virtual thread. Created reflectively since distributor targets Java 17.
+// Virtual threads are not listed by Thread.getAllStackTraces, so the running ones are tracked for diagnostics.
+final class VirtualThreadExecutor implements Executor {
+
+    private final ExecutorService delegate;
+    private final Set<Thread> running = ConcurrentHashMap.newKeySet();
+
+    private VirtualThreadExecutor(final ExecutorService delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Creates a new virtual thread executor, or returns {@code null} if virtual threads are not supported by the JVM.
+     *
+     * @param name the base name of the virtual threads
+     */
+    static @Nullable VirtualThreadExecutor create(final String name) {
+        try {
+            final var builder = Class.forName("java.lang.Thread$Builder");
+            final var factory = (ThreadFactory) builder.getMethod("factory")
+                    .invoke(Class.forName("java.lang.Thread$Builder$OfVirtual")
+                            .getMethod("name", String.class, long.class)
+                            .invoke(Thread.class.getMethod("ofVirtual").invoke(null), name, 0L));
+            final var executor = (ExecutorService)
+                    Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class).invoke(null, factory);
+            return new VirtualThreadExecutor(executor);
+        } catch (final ReflectiveOperationException | RuntimeException e) {
+            // Not supported or a preview feature that is not enabled
+            return null;
+        }
+    }
+
+    @Override
+    public void execute(final Runnable command) {
+        this.delegate.execute(() -> {
+            final var thread = Thread.currentThread();
+            this.running.add(thread);
+            try {
+                command.run();
+            } finally {
+                this.running.remove(thread);
+            }
+        });
+    }
+
+    void shutdown() {
+        this.delegate.shutdown();
+    }
+
+    boolean isShutdown() {
+        return this.delegate.isShutdown();
+    }
+
+    boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+        return this.delegate.awaitTermination(timeout, unit);
+    }
+
+    Collection<Thread> getRunningThreads() {
+        return Collections.unmodifiableSet(this.running);
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Distributor, a feature-rich framework for Mindustry plugins.
+ *
+ * Copyright (C) 2024 Xpdustry
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.xpdustry.distributor.common.audience;
+
+import arc.Events;
+import com.xpdustry.distributor.api.Distributor;
+import com.xpdustry.distributor.api.audience.Audience;
+import com.xpdustry.distributor.api.key.StandardKeys;
+import com.xpdustry.distributor.api.player.MUUID;
+import com.xpdustry.distributor.api.plugin.MindustryPlugin;
+import com.xpdustry.distributor.common.event.EventBusImpl;
+import java.util.Locale;
+import java.util.Random;
+import mindustry.game.EventType;
+import mindustry.game.Team;
+import mindustry.gen.Player;
+import mindustry.net.NetConnection;
+import mindustry.net.Packets;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class AudienceProviderImplTest {
+
+    private static final Random RANDOM = new Random();
+
+    private final MindustryPlugin plugin = Mockito.mock(MindustryPlugin.class, Mockito.RETURNS_DEEP_STUBS);
+    private EventBusImpl events;
+    private AudienceProviderImpl provider;
+
+    @BeforeEach
+    void setup() {
+        Distributor.set(Mockito.mock(Distributor.class, Mockito.RETURNS_DEEP_STUBS));
+        this.events = new EventBusImpl();
+        this.provider = new AudienceProviderImpl(this.plugin, this.events);
+    }
+
+    @AfterEach
+    void clear() {
+        Events.clear();
+        Distributor.set(null);
+    }
+
+    @Test
+    void test_team_membership() {
+        final var player1 = createPlayer(Team.sharded);
+        final var player2 = createPlayer(Team.sharded);
+        this.events.post(new EventType.PlayerJoin(player1));
+        this.events.post(new EventType.PlayerJoin(player2));
+        final var audience1 = this.provider.getPlayer(player1);
+        final var audience2 = this.provider.getPlayer(player2);
+
+        assertThat(this.provider.getTeam(Team.sharded).getAudiences()).containsExactly(audience1, audience2);
+        assertThat(this.provider.getTeam(Team.crux).getAudiences()).isEmpty();
+
+        Mockito.when(player1.team()).thenReturn(Team.crux);
+        this.events.post(EventType.Trigger.update);
+        assertThat(this.provider.getTeam(Team.sharded).getAudiences()).containsExactly(audience2);
+        assertThat(this.provider.getTeam(Team.crux).getAudiences()).containsExactly(audience1);
+
+        this.events.post(new EventType.PlayerLeave(player1));
+        assertThat(this.provider.getTeam(Team.crux).getAudiences()).isEmpty();
+    }
+
+    @Test
+    void test_player_by_uuid() {
+        final var player = createPlayer(Team.sharded);
+        assertThat(this.provider.getPlayer(player.uuid())).isEqualTo(Audience.empty());
+
+        this.events.post(new EventType.PlayerJoin(player));
+        assertThat(this.provider.getPlayer(player.uuid())).isSameAs(this.provider.getPlayer(player));
+
+        this.events.post(new EventType.PlayerLeave(player));
+        assertThat(this.provider.getPlayer(player.uuid())).isEqualTo(Audience.empty());
+    }
+
+    @Test
+    void test_connection_eviction() {
+        final var connection = Mockito.mock(NetConnection.class);
+        Mockito.when(connection.isConnected()).thenReturn(true);
+        this.events.post(new EventType.ConnectPacketEvent(connection, new Packets.ConnectPacket()));
+        assertThat(this.provider.getConnectionCount()).isEqualTo(1);
+
+        this.events.post(EventType.Trigger.update);
+        assertThat(this.provider.getConnectionCount()).isEqualTo(1);
+
+        Mockito.when(connection.isConnected()).thenReturn(false);
+        this.events.post(EventType.Trigger.update);
+        assertThat(this.provider.getConnectionCount()).isEqualTo(0);
+    }
+
+    @Test
+    void test_connection_eviction_on_join() {
+        final var player = createPlayer(Team.sharded);
+        this.events.post(new EventType.ConnectPacketEvent(player.con(), new Packets.ConnectPacket()));
+        assertThat(this.provider.getConnectionCount()).isEqualTo(1);
+
+        this.events.post(new EventType.PlayerJoin(player));
+        assertThat(this.provider.getConnectionCount()).isEqualTo(0);
+    }
+
+    @Test
+    void test_query() {
+        final var player1 = createPlayer(Team.sharded, "ru");
+        final var player2 = createPlayer(Team.sharded, "en");
+        final var player3 = createPlayer(Team.crux, "ru_RU");
+        this.events.post(new EventType.PlayerJoin(player1));
+        this.events.post(new EventType.PlayerJoin(player2));
+        this.events.post(new EventType.PlayerJoin(player3));
+        final var audience1 = this.provider.getPlayer(player1);
+        final var audience2 = this.provider.getPlayer(player2);
+        final var audience3 = this.provider.getPlayer(player3);
+
+        final var query = this.provider.query().team(Team.sharded).locale(Locale.forLanguageTag("ru")).toAudience();
+        assertThat(query.getAudiences()).containsExactly(audience1);
+        assertThat(this.provider.query().locale(Locale.forLanguageTag("ru")).toAudience().getAudiences())
+                .containsExactlyInAnyOrder(audience1, audience3);
+        assertThat(this.provider.query().locale(Locale.forLanguageTag("ru-RU")).toAudience().getAudiences())
+                .containsExactly(audience3);
+        assertThat(this.provider.query().key(StandardKeys.TEAM, Team.sharded).toAudience().getAudiences())
+                .containsExactlyInAnyOrder(audience1, audience2);
+
+        Mockito.when(player3.team()).thenReturn(Team.sharded);
+        this.events.post(EventType.Trigger.update);
+        assertThat(query.getAudiences()).containsExactlyInAnyOrder(audience1, audience3);
+
+        this.events.post(new EventType.PlayerLeave(player1));
+        assertThat(query.getAudiences()).containsExactly(audience3);
+    }
+
+    @Test
+    void test_query_locale_change() {
+        final var player = createPlayer(Team.sharded, "ru");
+        this.events.post(new EventType.PlayerJoin(player));
+        final var query = this.provider.query().locale(Locale.forLanguageTag("ru")).toAudience();
+        assertThat(query.getAudiences()).containsExactly(this.provider.getPlayer(player));
+
+        Mockito.when(player.locale()).thenReturn("en");
+        this.events.post(new EventType.PlayerLeave(player));
+        // A stale entry in the index would match again with the original locale
+        Mockito.when(player.locale()).thenReturn("ru");
+        assertThat(query.getAudiences()).isEmpty();
+    }
+
+    private static Player createPlayer(final Team team) {
+        return createPlayer(team, "en");
+    }
+
+    private static Player createPlayer(final Team team, final String locale) {
+        final var muuid = MUUID.of(RANDOM.nextLong(), RANDOM.nextLong());
+        final var player = Mockito.mock(Player.class, Mockito.RETURNS_DEEP_STUBS);
+        Mockito.when(player.uuid()).thenReturn(muuid.getUuid());
+        Mockito.when(player.usid()).thenReturn(muuid.getUsid());
+        Mockito.when(player.team()).thenReturn(team);
+        Mockito.when(player.locale()).thenReturn(locale);
+        return player;
+    }
+}
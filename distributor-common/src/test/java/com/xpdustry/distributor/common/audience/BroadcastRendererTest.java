@@ -0,0 +1,97 @@
+/*
+ * Distributor, a feature-rich framework for Mindustry plugins.
+ *
+ * Copyright (C) 2024 Xpdustry
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.xpdustry.distributor.common.audience;
+
+import com.xpdustry.distributor.api.Distributor;
+import com.xpdustry.distributor.api.component.Component;
+import com.xpdustry.distributor.api.component.render.ComponentRenderer;
+import com.xpdustry.distributor.api.component.render.ComponentRendererProvider;
+import com.xpdustry.distributor.api.key.Key;
+import com.xpdustry.distributor.api.key.MutableKeyContainer;
+import com.xpdustry.distributor.api.key.StandardKeys;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static com.xpdustry.distributor.api.component.TextComponent.text;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class BroadcastRendererTest {
+
+    private final AtomicInteger renders = new AtomicInteger();
+    private Key<?> key = StandardKeys.LOCALE;
+
+    @BeforeEach
+    void setup() {
+        final var distributor = Mockito.mock(Distributor.class);
+        Mockito.when(distributor.getComponentRendererProvider()).thenReturn(new TestComponentRendererProvider());
+        Distributor.set(distributor);
+    }
+
+    @AfterEach
+    void clear() {
+        Distributor.set(null);
+    }
+
+    @Test
+    void test_render_once_per_locale() {
+        final var renderer = new BroadcastRenderer(text("Hello"));
+        assertThat(renderer.render(createAudience(Locale.ENGLISH, "a"))).isEqualTo("en");
+        assertThat(renderer.render(createAudience(Locale.ENGLISH, "b"))).isEqualTo("en");
+        assertThat(renderer.render(createAudience(Locale.FRENCH, "c"))).isEqualTo("fr");
+        assertThat(renderer.render(createAudience(Locale.FRENCH, "d"))).isEqualTo("fr");
+        assertThat(this.renders).hasValue(2);
+    }
+
+    @Test
+    void test_render_metadata_dependent() {
+        this.key = StandardKeys.NAME;
+        final var renderer = new BroadcastRenderer(text("Hello"));
+        assertThat(renderer.render(createAudience(Locale.ENGLISH, "a"))).isEqualTo("a");
+        assertThat(renderer.render(createAudience(Locale.ENGLISH, "b"))).isEqualTo("b");
+        assertThat(renderer.render(createAudience(Locale.ENGLISH, "c"))).isEqualTo("c");
+        assertThat(this.renders).hasValue(3);
+    }
+
+    private static BaseNetConnectionAudience createAudience(final Locale locale, final String name) {
+        final var metadata = MutableKeyContainer.create();
+        metadata.set(StandardKeys.LOCALE, locale);
+        metadata.set(StandardKeys.NAME, name);
+        final var audience = Mockito.mock(BaseNetConnectionAudience.class);
+        Mockito.when(audience.getMetadata()).thenReturn(metadata);
+        Mockito.when(audience.render(Mockito.any())).thenCallRealMethod();
+        return audience;
+    }
+
+    private final class TestComponentRendererProvider implements ComponentRendererProvider {
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public <T extends Component> @Nullable ComponentRenderer<T> getRenderer(final T component) {
+            return (ComponentRenderer<T>) (ComponentRenderer<Component>) (c, builder) -> {
+                BroadcastRendererTest.this.renders.incrementAndGet();
+                builder.append(String.valueOf(builder.getContext().getRequired(BroadcastRendererTest.this.key)));
+            };
+        }
+    }
+}
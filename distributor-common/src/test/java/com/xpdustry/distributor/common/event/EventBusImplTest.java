@@ -0,0 +1,414 @@
+/*
+ * Distributor, a feature-rich framework for Mindustry plugins.
+ *
+ * Copyright (C) 2024 Xpdustry
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.xpdustry.distributor.common.event;
+
+import arc.Events;
+import com.xpdustry.distributor.api.event.EventFilter;
+import com.xpdustry.distributor.api.plugin.MindustryPlugin;
+import com.xpdustry.distributor.api.util.Priority;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class EventBusImplTest {
+
+    private final MindustryPlugin plugin = Mockito.mock(MindustryPlugin.class, Mockito.RETURNS_DEEP_STUBS);
+    private static final Function<TestNumberEvent, Integer> NUMBER_KEY = TestNumberEvent::number;
+    private static final Function<TestNumberEvent, Integer> PARITY_KEY = event -> event.number() % 2;
+
+    private EventBusImpl events;
+
+    @BeforeEach
+    void setup() {
+        this.events = new EventBusImpl();
+    }
+
+    @AfterEach
+    void clear() {
+        Events.clear();
+    }
+
+    @Test
+    void test_priority() {
+        final List<Integer> numbers = new ArrayList<>();
+        this.events.subscribe(TestEvent.class, Priority.LOWEST, this.plugin, e -> numbers.add(5));
+        this.events.subscribe(TestEvent.class, Priority.HIGH, this.plugin, e -> numbers.add(2));
+        this.events.subscribe(TestEvent.class, Priority.NORMAL, this.plugin, e -> numbers.add(3));
+        this.events.subscribe(TestEvent.class, Priority.HIGHEST, this.plugin, e -> numbers.add(1));
+        this.events.subscribe(TestEvent.class, Priority.LOW, this.plugin, e -> numbers.add(4));
+        this.events.post(new TestEvent());
+        assertThat(numbers).containsExactly(1, 2, 3, 4, 5);
+    }
+
+    @Test
+    void test_subscription_order() {
+        final List<Integer> numbers = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            final var number = i;
+            this.events.subscribe(TestEvent.class, this.plugin, e -> numbers.add(number));
+        }
+        this.events.post(new TestEvent());
+        assertThat(numbers).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+    }
+
+    @Test
+    void test_unsubscribe() {
+        final List<Integer> numbers = new ArrayList<>();
+        this.events.subscribe(TestEvent.class, this.plugin, e -> numbers.add(1));
+        final var subscription = this.events.subscribe(TestEvent.class, this.plugin, e -> numbers.add(2));
+        this.events.subscribe(TestEvent.class, this.plugin, e -> numbers.add(3));
+        subscription.unsubscribe();
+        subscription.unsubscribe();
+        this.events.post(new TestEvent());
+        assertThat(numbers).containsExactly(1, 3);
+    }
+
+    @Test
+    void test_unsubscribe_all() {
+        final var other = Mockito.mock(MindustryPlugin.class, Mockito.RETURNS_DEEP_STUBS);
+        final List<Integer> numbers = new ArrayList<>();
+        this.events.subscribe(TestEvent.class, Priority.HIGH, this.plugin, e -> numbers.add(1));
+        this.events.subscribe(TestEvent.class, other, e -> numbers.add(2));
+        this.events.subscribe(TestEvent.class, this.plugin, e -> numbers.add(3));
+        final var subscription = this.events.subscribe(TestEvent.class, this.plugin, e -> numbers.add(4));
+        subscription.unsubscribe();
+        this.events.unsubscribeAll(this.plugin);
+        this.events.unsubscribeAll(this.plugin);
+        this.events.post(new TestEvent());
+        assertThat(numbers).containsExactly(2);
+
+        numbers.clear();
+        this.events.subscribe(TestEvent.class, this.plugin, e -> numbers.add(5));
+        this.events.post(new TestEvent());
+        assertThat(numbers).containsExactly(2, 5);
+    }
+
+    @Test
+    void test_unsubscribe_prunes_listeners() {
+        final var subscription1 = this.events.subscribe(TestEvent.class, Priority.HIGH, this.plugin, e -> {});
+        final var subscription2 = this.events.subscribe(TestEvent.class, this.plugin, e -> {});
+        assertThat(this.events.events.get(TestEvent.class)).hasSize(2);
+
+        subscription1.unsubscribe();
+        assertThat(this.events.events.get(TestEvent.class)).hasSize(1);
+
+        subscription2.unsubscribe();
+        assertThat(this.events.events.containsKey(TestEvent.class)).isFalse();
+    }
+
+    @Test
+    void test_subscribe_off_thread() {
+        final List<Integer> numbers = new ArrayList<>();
+        CompletableFuture.runAsync(() -> this.events.subscribe(TestEvent.class, this.plugin, e -> numbers.add(1)))
+                .join();
+        assertThat(this.events.events.containsKey(TestEvent.class)).isFalse();
+
+        this.events.onPluginUpdate();
+        this.events.post(new TestEvent());
+        assertThat(numbers).containsExactly(1);
+    }
+
+    @Test
+    void test_filter() {
+        final List<Integer> numbers = new ArrayList<>();
+        this.events.subscribe(
+                TestNumberEvent.class,
+                this.plugin,
+                EventFilter.of(e -> e.number() % 2 == 0),
+                e -> numbers.add(e.number()));
+        for (int i = 0; i < 5; i++) {
+            this.events.post(new TestNumberEvent(i));
+        }
+        assertThat(numbers).containsExactly(0, 2, 4);
+    }
+
+    @Test
+    void test_keyed_filter() {
+        final List<Integer> numbers = new ArrayList<>();
+        this.events.subscribe(
+                TestNumberEvent.class, this.plugin, EventFilter.keyed(NUMBER_KEY, 1), e -> numbers.add(1));
+        this.events.subscribe(TestNumberEvent.class, this.plugin, e -> numbers.add(2));
+        this.events.subscribe(
+                TestNumberEvent.class, this.plugin, EventFilter.keyed(NUMBER_KEY, 2), e -> numbers.add(3));
+        this.events.subscribe(
+                TestNumberEvent.class, this.plugin, EventFilter.keyed(NUMBER_KEY, 1), e -> numbers.add(4));
+        this.events.post(new TestNumberEvent(1));
+        assertThat(numbers).containsExactly(1, 2, 4);
+
+        numbers.clear();
+        this.events.post(new TestNumberEvent(2));
+        assertThat(numbers).containsExactly(2, 3);
+
+        numbers.clear();
+        this.events.post(new TestNumberEvent(3));
+        assertThat(numbers).containsExactly(2);
+    }
+
+    @Test
+    void test_keyed_filter_groups_reentrant() {
+        final List<String> calls = new ArrayList<>();
+        this.events.subscribe(TestNumberEvent.class, this.plugin, EventFilter.keyed(NUMBER_KEY, 1), e -> {
+            calls.add("a" + e.number());
+            this.events.post(new TestNumberEvent(3));
+        });
+        this.events.subscribe(TestNumberEvent.class, this.plugin, e -> calls.add("b" + e.number()));
+        this.events.subscribe(
+                TestNumberEvent.class, this.plugin, EventFilter.keyed(PARITY_KEY, 1), e -> calls.add("c" + e.number()));
+        // The nested post merges the selected subscribers while the outer one is still merging them
+        this.events.post(new TestNumberEvent(1));
+        assertThat(calls).containsExactly("a1", "b3", "c3", "b1", "c1");
+
+        calls.clear();
+        this.events.post(new TestNumberEvent(2));
+        assertThat(calls).containsExactly("b2");
+    }
+
+    @Test
+    void test_batched() {
+        final List<List<Integer>> batches = new ArrayList<>();
+        this.events.subscribeBatched(TestNumberEvent.class, this.plugin, events -> batches.add(numbers(events)));
+        this.events.onPluginUpdate();
+        assertThat(batches).isEmpty();
+
+        for (int i = 0; i < 3; i++) {
+            this.events.post(new TestNumberEvent(i));
+        }
+        assertThat(batches).isEmpty();
+        this.events.onPluginUpdate();
+        assertThat(batches).containsExactly(List.of(0, 1, 2));
+
+        this.events.post(new TestNumberEvent(3));
+        this.events.onPluginUpdate();
+        this.events.onPluginUpdate();
+        assertThat(batches).containsExactly(List.of(0, 1, 2), List.of(3));
+    }
+
+    @Test
+    void test_coalesced() {
+        final List<List<Integer>> batches = new ArrayList<>();
+        final var subscription = this.events.subscribeCoalesced(
+                TestNumberEvent.class,
+                this.plugin,
+                event -> event.number() % 3,
+                events -> batches.add(numbers(events)));
+        for (int i = 0; i < 8; i++) {
+            this.events.post(new TestNumberEvent(i));
+        }
+        this.events.onPluginUpdate();
+        assertThat(batches).containsExactly(List.of(6, 7, 5));
+
+        this.events.post(new TestNumberEvent(0));
+        subscription.unsubscribe();
+        this.events.onPluginUpdate();
+        assertThat(batches).hasSize(1);
+    }
+
+    @Test
+    void test_arc_listeners() {
+        final List<Integer> numbers = new ArrayList<>();
+        Events.on(TestEvent.class, e -> numbers.add(2));
+        this.events.subscribe(TestEvent.class, Priority.LOW, this.plugin, e -> numbers.add(3));
+        this.events.subscribe(TestEvent.class, Priority.HIGH, this.plugin, e -> numbers.add(1));
+        Events.fire(new TestEvent());
+        assertThat(numbers).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void test_polymorphic() {
+        final var events = new EventBusImpl(true, Runnable::run);
+        final List<Integer> numbers = new ArrayList<>();
+        events.subscribe(TestInterface.class, Priority.HIGH, this.plugin, e -> numbers.add(1));
+        events.subscribe(TestChildEvent.class, this.plugin, e -> numbers.add(2));
+        events.subscribe(TestParentEvent.class, this.plugin, e -> numbers.add(3));
+        events.subscribe(Object.class, Priority.LOWEST, this.plugin, e -> numbers.add(4));
+        events.post(new TestChildEvent());
+        assertThat(numbers).containsExactly(1, 2, 3, 4);
+
+        numbers.clear();
+        events.post(new TestParentEvent());
+        assertThat(numbers).containsExactly(1, 3, 4);
+    }
+
+    @Test
+    void test_polymorphic_invalidation() {
+        final var events = new EventBusImpl(true, Runnable::run);
+        final List<Integer> numbers = new ArrayList<>();
+        events.subscribe(TestChildEvent.class, this.plugin, e -> numbers.add(1));
+        events.post(new TestChildEvent());
+        events.subscribe(TestParentEvent.class, this.plugin, e -> numbers.add(2));
+        events.post(new TestChildEvent());
+        assertThat(numbers).containsExactly(1, 1, 2);
+    }
+
+    @Test
+    void test_monomorphic() {
+        final List<Integer> numbers = new ArrayList<>();
+        this.events.subscribe(TestParentEvent.class, this.plugin, e -> numbers.add(1));
+        this.events.post(new TestChildEvent());
+        assertThat(numbers).isEmpty();
+    }
+
+    @Test
+    void test_async() {
+        final var thread = new CompletableFuture<Thread>();
+        this.events.subscribe(TestEvent.class, this.plugin, e -> thread.complete(Thread.currentThread()));
+        assertThat(this.events.postAsync(new TestEvent())).succeedsWithin(1L, TimeUnit.SECONDS);
+        assertThat(thread).isCompletedWithValueMatching(t -> t != Thread.currentThread());
+    }
+
+    @Test
+    void test_async_ordered() throws InterruptedException {
+        final var executor = Executors.newFixedThreadPool(4);
+        try {
+            final var events = new EventBusImpl(false, executor);
+            final List<Integer> numbers = Collections.synchronizedList(new ArrayList<>());
+            events.subscribe(TestNumberEvent.class, this.plugin, e -> numbers.add(e.number()));
+            CompletableFuture<Void> last = CompletableFuture.completedFuture(null);
+            for (int i = 0; i < 100; i++) {
+                last = events.postAsyncOrdered("numbers", new TestNumberEvent(i));
+            }
+            assertThat(last).succeedsWithin(1L, TimeUnit.SECONDS);
+            assertThat(numbers).isSorted().hasSize(100);
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1L, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void test_async_ordered_across_types() throws InterruptedException {
+        final var executor = Executors.newFixedThreadPool(4);
+        try {
+            final var events = new EventBusImpl(false, executor);
+            final List<Integer> numbers = Collections.synchronizedList(new ArrayList<>());
+            events.subscribe(TestNumberEvent.class, this.plugin, e -> numbers.add(e.number()));
+            events.subscribe(TestEvent.class, this.plugin, e -> numbers.add(-1));
+            final List<Integer> expected = new ArrayList<>();
+            CompletableFuture<Void> last = CompletableFuture.completedFuture(null);
+            for (int i = 0; i < 50; i++) {
+                events.postAsyncOrdered("key", new TestNumberEvent(i));
+                last = events.postAsyncOrdered("key", new TestEvent());
+                expected.add(i);
+                expected.add(-1);
+            }
+            assertThat(last).succeedsWithin(1L, TimeUnit.SECONDS);
+            assertThat(numbers).containsExactlyElementsOf(expected);
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(1L, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void test_async_skips_arc_listeners() {
+        final List<Integer> numbers = Collections.synchronizedList(new ArrayList<>());
+        Events.on(TestEvent.class, e -> numbers.add(1));
+        this.events.subscribe(TestEvent.class, this.plugin, e -> numbers.add(2));
+        assertThat(this.events.postAsync(new TestEvent())).succeedsWithin(1L, TimeUnit.SECONDS);
+        assertThat(numbers).containsExactly(2);
+    }
+
+    @Test
+    void test_metrics() {
+        final var metrics = this.events.getMetrics();
+        this.events.subscribe(TestEvent.class, Priority.HIGH, this.plugin, e -> {});
+        this.events.subscribe(TestEvent.class, Priority.HIGH, this.plugin, e -> {
+            throw new RuntimeException("Expected");
+        });
+        this.events.post(new TestEvent());
+        assertThat(metrics.getListenerMetrics()).isEmpty();
+
+        metrics.setEnabled(true);
+        this.events.post(new TestEvent());
+        this.events.post(new TestEvent());
+        assertThat(metrics.getListenerMetrics()).singleElement().satisfies(metric -> {
+            assertThat(metric.getEvent()).isEqualTo(TestEvent.class);
+            assertThat(metric.getPriority()).isEqualTo(Priority.HIGH);
+            assertThat(metric.getInvocationCount()).isEqualTo(4);
+            assertThat(metric.getExceptionCount()).isEqualTo(2);
+            assertThat(metric.getMaxTime()).isLessThanOrEqualTo(metric.getTotalTime());
+        });
+
+        metrics.reset();
+        assertThat(metrics.getListenerMetrics()).isEmpty();
+    }
+
+    @Test
+    void test_metrics_batched() {
+        final var metrics = this.events.getMetrics();
+        this.events.subscribeBatched(TestNumberEvent.class, this.plugin, events -> {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(2L));
+        });
+        metrics.setEnabled(true);
+        for (int i = 0; i < 3; i++) {
+            this.events.post(new TestNumberEvent(i));
+        }
+        // Adding the events to the batch doesn't count as an invocation of the listener
+        assertThat(metrics.getListenerMetrics()).isEmpty();
+
+        this.events.onPluginUpdate();
+        assertThat(metrics.getListenerMetrics()).singleElement().satisfies(metric -> {
+            assertThat(metric.getEvent()).isEqualTo(TestNumberEvent.class);
+            assertThat(metric.getInvocationCount()).isEqualTo(1);
+            assertThat(metric.getTotalTime()).isGreaterThanOrEqualTo(Duration.ofMillis(2L));
+        });
+    }
+
+    @Test
+    void test_metrics_unsubscribe_all() {
+        final var metrics = this.events.getMetrics();
+        final var other = Mockito.mock(MindustryPlugin.class, Mockito.RETURNS_DEEP_STUBS);
+        this.events.subscribe(TestEvent.class, this.plugin, e -> {});
+        this.events.subscribe(TestEvent.class, other, e -> {});
+        metrics.setEnabled(true);
+        this.events.post(new TestEvent());
+        assertThat(metrics.getListenerMetrics()).hasSize(2);
+
+        this.events.unsubscribeAll(this.plugin);
+        assertThat(metrics.getListenerMetrics())
+                .singleElement()
+                .satisfies(metric -> assertThat(metric.getPlugin()).isSameAs(other));
+    }
+
+    private static List<Integer> numbers(final List<TestNumberEvent> events) {
+        return events.stream().map(TestNumberEvent::number).toList();
+    }
+
+    private record TestEvent() {}
+
+    private record TestNumberEvent(int number) {}
+
+    private interface TestInterface {}
+
+    private static class TestParentEvent implements TestInterface {}
+
+    private static final class TestChildEvent extends TestParentEvent {}
+}
@@ -0,0 +1,55 @@
+/*
+ * Distributor, a feature-rich framework for Mindustry plugins.
+ *
+ * Copyright (C) 2024 Xpdustry
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.xpdustry.distributor.common.scheduler;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public final class LatencyHistogramTest {
+
+    @ParameterizedTest
+    @ValueSource(longs = {0L, 1L, 15L, 16L, 17L, 1_000L, 16_666_667L, 1L << 40, Long.MAX_VALUE})
+    void test_bucket_bounds(final long value) {
+        final var index = LatencyHistogram.getIndex(value);
+        assertThat(LatencyHistogram.getHighestValue(index)).isGreaterThanOrEqualTo(value);
+        if (index > 0) {
+            assertThat(LatencyHistogram.getHighestValue(index - 1)).isLessThan(value);
+        }
+    }
+
+    @Test
+    void test_percentiles() {
+        final var histogram = new LatencyHistogram();
+        for (long i = 1; i <= 10_000; i++) {
+            histogram.record(i * 1_000L);
+        }
+        assertThat(histogram.getCount()).isEqualTo(10_000L);
+        assertThat(histogram.getValueAtPercentile(50D)).isCloseTo(5_000_000L, within(5_000_000L / 16));
+        assertThat(histogram.getValueAtPercentile(99D)).isCloseTo(9_900_000L, within(9_900_000L / 16));
+        assertThat(histogram.getValueAtPercentile(100D)).isEqualTo(10_000_000L);
+
+        histogram.reset();
+        assertThat(histogram.getCount()).isZero();
+        assertThat(histogram.getValueAtPercentile(99D)).isZero();
+    }
+}
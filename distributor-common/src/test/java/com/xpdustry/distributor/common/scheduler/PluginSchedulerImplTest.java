@@ -0,0 +1,597 @@
+/*
+ * Distributor, a feature-rich framework for Mindustry plugins.
+ *
+ * Copyright (C) 2024 Xpdustry
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package com.xpdustry.distributor.common.scheduler;
+
+import com.xpdustry.distributor.api.plugin.MindustryPlugin;
+import com.xpdustry.distributor.api.scheduler.MindustryTimeUnit;
+import com.xpdustry.distributor.api.scheduler.MissedRunPolicy;
+import com.xpdustry.distributor.api.scheduler.PluginTask;
+import com.xpdustry.distributor.common.event.EventBusImpl;
+import com.xpdustry.distributor.common.scheduler.PluginSchedulerImpl.Options;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.mockito.Mockito;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public final class PluginSchedulerImplTest {
+
+    private final MindustryPlugin plugin = Mockito.mock(MindustryPlugin.class, Mockito.RETURNS_DEEP_STUBS);
+    private long ticks = 1000L;
+
+    @ParameterizedTest
+    @MethodSource("queues")
+    void test_execution_order(final PluginTaskQueue queue) {
+        final var scheduler = this.createScheduler(queue);
+        final List<Long> executions = new ArrayList<>();
+        for (final var delay : new long[] {70_000L, 5L, 1L, 1000L, 3L, 64L, 5L}) {
+            scheduler
+                    .schedule(this.plugin)
+                    .delay(delay, MindustryTimeUnit.TICKS)
+                    .execute(() -> executions.add(this.ticks));
+        }
+        scheduler.onPluginUpdate();
+        assertThat(executions).isEmpty();
+        this.ticks += 2;
+        scheduler.onPluginUpdate();
+        assertThat(executions).containsExactly(1002L);
+        this.ticks += 100;
+        scheduler.onPluginUpdate();
+        assertThat(executions).containsExactly(1002L, 1102L, 1102L, 1102L, 1102L);
+        this.ticks += 100_000;
+        scheduler.onPluginUpdate();
+        assertThat(executions).hasSize(7);
+        scheduler.onPluginExit();
+    }
+
+    @ParameterizedTest
+    @MethodSource("queues")
+    void test_repeat(final PluginTaskQueue queue) {
+        final var scheduler = this.createScheduler(queue);
+        final List<Long> executions = new ArrayList<>();
+        scheduler
+                .schedule(this.plugin)
+                .repeat(10L, MindustryTimeUnit.TICKS)
+                .execute(() -> executions.add(this.ticks));
+        for (int i = 0; i < 30; i++) {
+            this.ticks++;
+            scheduler.onPluginUpdate();
+        }
+        assertThat(executions).containsExactly(1001L, 1012L, 1023L);
+        scheduler.onPluginExit();
+    }
+
+    @ParameterizedTest
+    @EnumSource(MissedRunPolicy.class)
+    void test_repeat_at_fixed_rate(final MissedRunPolicy policy) {
+        final var scheduler = this.createScheduler(PluginTaskQueue.heap());
+        final List<Long> executions = new ArrayList<>();
+        scheduler
+                .schedule(this.plugin)
+                .repeatAtFixedRate(10L, MindustryTimeUnit.TICKS, policy)
+                .execute(() -> executions.add(this.ticks));
+        this.ticks++;
+        scheduler.onPluginUpdate();
+        assertThat(executions).containsExactly(1001L);
+
+        this.ticks = 1010L;
+        scheduler.onPluginUpdate();
+        assertThat(executions).containsExactly(1001L);
+
+        this.ticks = 1035L;
+        scheduler.onPluginUpdate();
+        if (policy == MissedRunPolicy.CATCH_UP) {
+            assertThat(executions).containsExactly(1001L, 1035L, 1035L, 1035L);
+        } else {
+            assertThat(executions).containsExactly(1001L, 1035L);
+        }
+
+        final var count = executions.size();
+        this.ticks = 1040L;
+        scheduler.onPluginUpdate();
+        assertThat(executions).hasSize(count);
+        this.ticks = 1041L;
+        scheduler.onPluginUpdate();
+        assertThat(executions).hasSize(count + 1);
+        scheduler.onPluginExit();
+    }
+
+    @ParameterizedTest
+    @MethodSource("queues")
+    void test_cancel(final PluginTaskQueue queue) {
+        final var scheduler = this.createScheduler(queue);
+        final List<Long> executions = new ArrayList<>();
+        final var task = scheduler
+                .schedule(this.plugin)
+                .delay(10L, MindustryTimeUnit.TICKS)
+                .execute(() -> executions.add(this.ticks));
+        task.cancel(false);
+        this.ticks += 20;
+        scheduler.onPluginUpdate();
+        assertThat(executions).isEmpty();
+        assertThat(queue.size()).isZero();
+        scheduler.onPluginExit();
+    }
+
+    @ParameterizedTest
+    @MethodSource("queues")
+    void test_lazy_removal(final PluginTaskQueue queue) {
+        final var scheduler = this.createScheduler(queue, false);
+        final var task1 = scheduler.schedule(this.plugin).delay(10L, MindustryTimeUnit.TICKS).execute(() -> {});
+        scheduler.schedule(this.plugin).delay(10L, MindustryTimeUnit.TICKS).execute(() -> {});
+        task1.cancel(false);
+        assertThat(queue.size()).isEqualTo(2);
+        assertThat(scheduler.getLiveTaskCount()).isEqualTo(1);
+        assertThat(scheduler.getCancelledTaskCount()).isEqualTo(1);
+        this.ticks += 20;
+        scheduler.onPluginUpdate();
+        assertThat(scheduler.getLiveTaskCount()).isZero();
+        assertThat(scheduler.getCancelledTaskCount()).isZero();
+        scheduler.onPluginExit();
+    }
+
+    @ParameterizedTest
+    @MethodSource("queues")
+    void test_eager_removal(final PluginTaskQueue queue) {
+        final var scheduler = this.createScheduler(queue, true);
+        final List<Long> executions = new ArrayList<>();
+        final var task1 = scheduler
+                .schedule(this.plugin)
+                .delay(100_000L, MindustryTimeUnit.TICKS)
+                .execute(() -> executions.add(this.ticks));
+        scheduler.schedule(this.plugin).delay(10L, MindustryTimeUnit.TICKS).execute(() -> executions.add(this.ticks));
+        scheduler.onPluginUpdate();
+        task1.cancel(false);
+        assertThat(queue.size()).isEqualTo(1);
+        assertThat(scheduler.getLiveTaskCount()).isEqualTo(1);
+        assertThat(scheduler.getCancelledTaskCount()).isZero();
+        this.ticks += 200_000;
+        scheduler.onPluginUpdate();
+        assertThat(executions).containsExactly(201_000L);
+        scheduler.onPluginExit();
+    }
+
+    @Test
+    void test_virtual() throws Exception {
+        final var scheduler = new PluginSchedulerImpl(
+                () -> this.ticks, Runnable::run, 1, Options.defaults().withVirtualThreads(true));
+        final var task = scheduler
+                .schedule(this.plugin)
+                .async(true)
+                .virtual(true)
+                .execute(() -> Thread.currentThread().getName());
+        this.ticks++;
+        scheduler.onPluginUpdate();
+        // Runs on the worker pool if virtual threads are not supported
+        assertThat(task.get(5L, TimeUnit.SECONDS)).startsWith(PluginSchedulerImpl.DISTRIBUTOR_WORKER_BASE_NAME);
+        scheduler.onPluginExit();
+    }
+
+    @Test
+    void test_timer() throws Exception {
+        final var scheduler = new PluginSchedulerImpl(
+                PluginTimeSource.monotonic(),
+                Runnable::run,
+                1,
+                Options.defaults().withTimerPeriod(TimeUnit.MILLISECONDS.toNanos(1L)));
+        final var start = System.nanoTime();
+        final var task = scheduler
+                .schedule(this.plugin)
+                .async(true)
+                .delay(5L, MindustryTimeUnit.MILLISECONDS)
+                .execute(System::nanoTime);
+        // Never updated, the task is only polled by the timer
+        assertThat(task.get(5L, TimeUnit.SECONDS) - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(5L));
+        scheduler.onPluginExit();
+    }
+
+    @Test
+    void test_sync_budget() {
+        final var scheduler =
+                new PluginSchedulerImpl(() -> this.ticks, Runnable::run, 1, Options.defaults().withSyncBudget(1L));
+        final List<Integer> executions = new ArrayList<>();
+        for (final var delay : new int[] {3, 1, 2}) {
+            scheduler
+                    .schedule(this.plugin)
+                    .delay(delay, MindustryTimeUnit.TICKS)
+                    .execute(() -> executions.add(delay));
+        }
+        this.ticks += 10;
+        scheduler.onPluginUpdate();
+        assertThat(executions).containsExactly(1);
+        assertThat(scheduler.getMetrics().getSyncBacklogSize()).isEqualTo(2);
+        scheduler.onPluginUpdate();
+        scheduler.onPluginUpdate();
+        assertThat(executions).containsExactly(1, 2, 3);
+        assertThat(scheduler.getMetrics().getSyncBacklogSize()).isZero();
+        assertThat(scheduler.getMetrics().getSyncBudgetExceededCount()).isEqualTo(2);
+        scheduler.getMetrics().reset();
+        assertThat(scheduler.getMetrics().getSyncBudgetExceededCount()).isZero();
+        scheduler.onPluginExit();
+    }
+
+    @Test
+    void test_catch_up_sync_budget() {
+        final var scheduler =
+                new PluginSchedulerImpl(() -> this.ticks, Runnable::run, 1, Options.defaults().withSyncBudget(1L));
+        final List<Long> executions = new ArrayList<>();
+        scheduler
+                .schedule(this.plugin)
+                .repeatAtFixedRate(10L, MindustryTimeUnit.TICKS, MissedRunPolicy.CATCH_UP)
+                .execute(() -> executions.add(this.ticks));
+        this.ticks = 1035L;
+        scheduler.onPluginUpdate();
+        assertThat(executions).containsExactly(1035L);
+        assertThat(scheduler.getMetrics().getSyncBacklogSize()).isEqualTo(1);
+        for (int i = 0; i < 3; i++) {
+            scheduler.onPluginUpdate();
+        }
+        assertThat(executions).containsExactly(1035L, 1035L, 1035L, 1035L);
+        assertThat(scheduler.getMetrics().getSyncBacklogSize()).isZero();
+        scheduler.onPluginExit();
+    }
+
+    @Test
+    void test_catch_up_sub_tick() {
+        final var nanos = new AtomicLong(5_000_000_000L);
+        final Queue<Runnable> frame = new ArrayDeque<>();
+        final var scheduler = new PluginSchedulerImpl(new NanosTimeSource(nanos), frame::add, 1, Options.defaults());
+        final List<Long> executions = new ArrayList<>();
+        scheduler
+                .schedule(this.plugin)
+                .repeatAtFixedRate(1L, MindustryTimeUnit.MILLISECONDS, MissedRunPolicy.CATCH_UP)
+                .execute(() -> executions.add(nanos.get()));
+        // A single frame covers all the periods missed during a tick
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(10L));
+        scheduler.onPluginUpdate();
+        runFrame(frame);
+        assertThat(executions).hasSize(10);
+        assertThat(frame).isEmpty();
+        scheduler.onPluginExit();
+    }
+
+    @Test
+    void test_catch_up_limit() {
+        final var nanos = new AtomicLong(5_000_000_000L);
+        final var scheduler = new PluginSchedulerImpl(new NanosTimeSource(nanos), Runnable::run, 1, Options.defaults());
+        final List<Long> executions = new ArrayList<>();
+        scheduler
+                .schedule(this.plugin)
+                .repeatAtFixedRate(1L, MindustryTimeUnit.MILLISECONDS, MissedRunPolicy.CATCH_UP)
+                .execute(() -> executions.add(nanos.get()));
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1L));
+        scheduler.onPluginUpdate();
+        assertThat(executions).hasSize(1 + PluginTaskImpl.MAX_CATCH_UP_RUNS);
+
+        // The remaining missed executions are skipped, staying aligned with the cadence
+        nanos.addAndGet(1L);
+        scheduler.onPluginUpdate();
+        assertThat(executions).hasSize(2 + PluginTaskImpl.MAX_CATCH_UP_RUNS);
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(1L) - 1L);
+        scheduler.onPluginUpdate();
+        assertThat(executions).hasSize(2 + PluginTaskImpl.MAX_CATCH_UP_RUNS);
+        scheduler.onPluginExit();
+    }
+
+    @Test
+    void test_fair_dispatch() throws Exception {
+        final var scheduler = new PluginSchedulerImpl(() -> this.ticks, Runnable::run, 1, Options.defaults());
+        final var other = Mockito.mock(MindustryPlugin.class, Mockito.RETURNS_DEEP_STUBS);
+        final var latch = new CountDownLatch(1);
+        final List<String> executions = Collections.synchronizedList(new ArrayList<>());
+        final List<PluginTask<?>> tasks = new ArrayList<>();
+        for (int i = 1; i <= 7; i++) {
+            final var name = (i <= 5 ? "a" : "b") + i;
+            tasks.add(scheduler
+                    .schedule(i <= 5 ? this.plugin : other)
+                    .async(true)
+                    .delay(i, MindustryTimeUnit.TICKS)
+                    .execute(() -> {
+                        // Blocks the single worker until every task is dispatched
+                        await(latch);
+                        executions.add(name);
+                    }));
+        }
+        this.ticks += 10;
+        scheduler.onPluginUpdate();
+        assertThat(scheduler.getAsyncQueueStats().get(this.plugin).pending()).isEqualTo(4);
+        assertThat(scheduler.getAsyncQueueStats().get(other).pending()).isEqualTo(2);
+        latch.countDown();
+        for (final var task : tasks) {
+            task.get(5L, TimeUnit.SECONDS);
+        }
+        assertThat(executions).containsExactly("a1", "a2", "b6", "a3", "b7", "a4", "a5");
+        scheduler.onPluginExit();
+    }
+
+    @Test
+    void test_async_limit() throws Exception {
+        final var scheduler =
+                new PluginSchedulerImpl(() -> this.ticks, Runnable::run, 4, Options.defaults().withAsyncLimit(1));
+        final var running = new AtomicInteger();
+        final var maximum = new AtomicInteger();
+        final List<PluginTask<?>> tasks = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            tasks.add(scheduler.schedule(this.plugin).async(true).execute(() -> {
+                maximum.accumulateAndGet(running.incrementAndGet(), Math::max);
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5L));
+                running.decrementAndGet();
+            }));
+        }
+        this.ticks++;
+        scheduler.onPluginUpdate();
+        for (final var task : tasks) {
+            task.get(5L, TimeUnit.SECONDS);
+        }
+        assertThat(maximum).hasValue(1);
+        scheduler.onPluginExit();
+    }
+
+    @Test
+    void test_async_limit_continuations() throws Exception {
+        final var scheduler =
+                new PluginSchedulerImpl(() -> this.ticks, Runnable::run, 4, Options.defaults().withAsyncLimit(1));
+        final var running = new AtomicInteger();
+        final var maximum = new AtomicInteger();
+        final Runnable work = () -> {
+            maximum.accumulateAndGet(running.incrementAndGet(), Math::max);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5L));
+            running.decrementAndGet();
+        };
+        final List<CompletableFuture<?>> stages = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            final var task = scheduler.schedule(this.plugin).async(true).execute(() -> 1);
+            for (int j = 0; j < 2; j++) {
+                stages.add(task.thenApplyAsync(value -> {
+                            work.run();
+                            return value;
+                        })
+                        .toCompletableFuture());
+            }
+        }
+        this.ticks++;
+        scheduler.onPluginUpdate();
+        CompletableFuture.allOf(stages.toArray(CompletableFuture[]::new)).get(5L, TimeUnit.SECONDS);
+        assertThat(maximum).hasValue(1);
+        scheduler.onPluginExit();
+    }
+
+    @Test
+    void test_async_limit_event_bus() throws Exception {
+        final var scheduler =
+                new PluginSchedulerImpl(() -> this.ticks, Runnable::run, 4, Options.defaults().withAsyncLimit(1));
+        final var events = new EventBusImpl(false, scheduler.getAsyncExecutor(this.plugin));
+        final var running = new AtomicInteger();
+        final var maximum = new AtomicInteger();
+        events.subscribe(String.class, this.plugin, event -> {
+            maximum.accumulateAndGet(running.incrementAndGet(), Math::max);
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(5L));
+            running.decrementAndGet();
+        });
+        final List<CompletableFuture<?>> posts = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            posts.add(events.postAsync("event"));
+        }
+        CompletableFuture.allOf(posts.toArray(CompletableFuture[]::new)).get(5L, TimeUnit.SECONDS);
+        assertThat(maximum).hasValue(1);
+        scheduler.onPluginExit();
+    }
+
+    @Test
+    void test_parallel_map() throws Exception {
+        final var scheduler = this.createScheduler(PluginTaskQueue.heap());
+        final var threads = ConcurrentHashMap.<String>newKeySet();
+        final var elements = IntStream.range(0, 10_000).boxed().toList();
+        final var result = scheduler.parallelMap(this.plugin, elements, element -> {
+            threads.add(Thread.currentThread().getName());
+            return element * 2;
+        });
+        assertThat(result.toCompletableFuture().get(5L, TimeUnit.SECONDS))
+                .isEqualTo(elements.stream().map(element -> element * 2).toList());
+        assertThat(threads).allMatch(name -> name.startsWith(PluginSchedulerImpl.DISTRIBUTOR_WORKER_BASE_NAME));
+        scheduler.onPluginExit();
+    }
+
+    @Test
+    void test_parallel_collect_metrics_origin() throws Exception {
+        final var scheduler = this.createScheduler(PluginTaskQueue.heap());
+        scheduler.getMetrics().setEnabled(true);
+        final var elements = IntStream.range(0, 100).boxed().toList();
+        final var result = scheduler.parallelCollect(this.plugin, elements, Collectors.summingInt(element -> element));
+        assertThat(result.toCompletableFuture().get(5L, TimeUnit.SECONDS)).isEqualTo(4950);
+        // Waits for the workers to record the executions of the chunks
+        scheduler.onPluginExit();
+        final var metrics = scheduler.getMetrics().getTaskMetrics();
+        assertThat(metrics).hasSize(1);
+        assertThat(metrics.get(0).getOrigin()).isEqualTo(PluginSchedulerImplTest.class.getName());
+    }
+
+    @Test
+    void test_metrics() {
+        final var scheduler = this.createScheduler(PluginTaskQueue.heap());
+        scheduler.getMetrics().setEnabled(true);
+        scheduler.schedule(this.plugin).name("named").execute(() -> {});
+        scheduler.schedule(this.plugin).delay(1L, MindustryTimeUnit.TICKS).execute(() -> {
+            throw new IllegalStateException();
+        });
+        this.ticks += 4;
+        scheduler.onPluginUpdate();
+
+        final var metrics = scheduler.getMetrics().getTaskMetrics();
+        assertThat(metrics).hasSize(2);
+        final var named = metrics.stream()
+                .filter(metric -> metric.getOrigin().equals("named"))
+                .findFirst()
+                .orElseThrow();
+        assertThat(named.getExecutionTime().getCount()).isEqualTo(1L);
+        assertThat(named.isAsync()).isFalse();
+        final var failing = metrics.stream()
+                .filter(metric -> metric.getOrigin().equals(PluginSchedulerImplTest.class.getName()))
+                .findFirst()
+                .orElseThrow();
+        assertThat(failing.getExceptionCount()).isEqualTo(1L);
+        // Scheduled for the tick 1001, executed at 1004
+        assertThat(failing.getSchedulingLag().getMax())
+                .isEqualTo(Duration.ofNanos(MindustryTimeUnit.NANOSECONDS.convert(1004L, MindustryTimeUnit.TICKS)
+                        - MindustryTimeUnit.NANOSECONDS.convert(1000L, MindustryTimeUnit.TICKS)
+                        - 16_666_667L));
+
+        scheduler.getMetrics().reset();
+        assertThat(scheduler.getMetrics().getTaskMetrics()).isEmpty();
+        scheduler.onPluginExit();
+    }
+
+    @Test
+    void test_metrics_reset_plugin() {
+        final var scheduler = this.createScheduler(PluginTaskQueue.heap());
+        final var other = Mockito.mock(MindustryPlugin.class, Mockito.RETURNS_DEEP_STUBS);
+        scheduler.getMetrics().setEnabled(true);
+        scheduler.schedule(this.plugin).execute(() -> {});
+        scheduler.schedule(other).execute(() -> {});
+        scheduler.onPluginUpdate();
+        assertThat(scheduler.getMetrics().getTaskMetrics()).hasSize(2);
+
+        scheduler.getMetrics().reset(this.plugin);
+        final var metrics = scheduler.getMetrics().getTaskMetrics();
+        assertThat(metrics).hasSize(1);
+        assertThat(metrics.get(0).getPlugin()).isSameAs(other);
+        scheduler.onPluginExit();
+    }
+
+    @ParameterizedTest
+    @MethodSource("queues")
+    void test_nanosecond_time_source(final PluginTaskQueue queue) {
+        final var nanos = new AtomicLong(5_000_000_000L);
+        final var scheduler = new PluginSchedulerImpl(
+                new NanosTimeSource(nanos), Runnable::run, 1, Options.defaults().withQueue(queue));
+        final List<String> executions = new ArrayList<>();
+        scheduler.schedule(this.plugin).delay(1L, MindustryTimeUnit.TICKS).execute(() -> executions.add("tick"));
+        scheduler
+                .schedule(this.plugin)
+                .delay(1500L, MindustryTimeUnit.NANOSECONDS)
+                .execute(() -> executions.add("nanos"));
+        scheduler.onPluginUpdate();
+        assertThat(executions).isEmpty();
+        nanos.addAndGet(1501L);
+        scheduler.onPluginUpdate();
+        assertThat(executions).containsExactly("nanos");
+        nanos.addAndGet(16_665_166L);
+        scheduler.onPluginUpdate();
+        assertThat(executions).containsExactly("nanos");
+        nanos.addAndGet(1L);
+        scheduler.onPluginUpdate();
+        assertThat(executions).containsExactly("nanos", "tick");
+        scheduler.onPluginExit();
+    }
+
+    @Test
+    void test_then_apply() throws Exception {
+        final var scheduler = this.createScheduler(PluginTaskQueue.heap());
+        final var stage = scheduler
+                .schedule(this.plugin)
+                .async(true)
+                .execute(() -> Thread.currentThread().getName())
+                .thenApplyAsync(name -> name + ":" + Thread.currentThread().getName());
+        this.ticks++;
+        scheduler.onPluginUpdate();
+        final var names = stage.toCompletableFuture().get(5L, TimeUnit.SECONDS).split(":");
+        assertThat(names[0]).startsWith(PluginSchedulerImpl.DISTRIBUTOR_WORKER_BASE_NAME);
+        // The continuation is dispatched to the workers like the tasks of the plugin
+        assertThat(names[1]).startsWith(PluginSchedulerImpl.DISTRIBUTOR_WORKER_BASE_NAME);
+
+        final var task = scheduler.schedule(this.plugin).execute(() -> 1);
+        final var result = task.thenApplySync(value -> value + 1).thenApply(value -> value * 2);
+        this.ticks++;
+        scheduler.onPluginUpdate();
+        assertThat(result.toCompletableFuture().getNow(null)).isEqualTo(4);
+        scheduler.onPluginExit();
+    }
+
+    @Test
+    void test_completion_stage_cancel() {
+        final var scheduler = this.createScheduler(PluginTaskQueue.heap());
+        final var task = scheduler.schedule(this.plugin).delay(10L, MindustryTimeUnit.TICKS).execute(() -> 1);
+        final var stage = task.toCompletionStage().toCompletableFuture();
+        task.cancel();
+        assertThat(stage).isCompletedExceptionally();
+        assertThat(task.toCompletionStage().toCompletableFuture()).isCompletedExceptionally();
+        scheduler.onPluginExit();
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(5L, TimeUnit.SECONDS);
+        } catch (final InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void runFrame(final Queue<Runnable> frame) {
+        for (int i = frame.size(); i > 0; i--) {
+            frame.remove().run();
+        }
+    }
+
+    private PluginSchedulerImpl createScheduler(final PluginTaskQueue queue) {
+        return this.createScheduler(queue, false);
+    }
+
+    private PluginSchedulerImpl createScheduler(final PluginTaskQueue queue, final boolean eagerRemoval) {
+        return new PluginSchedulerImpl(
+                () -> this.ticks,
+                Runnable::run,
+                1,
+                Options.defaults().withQueue(queue).withEagerRemoval(eagerRemoval));
+    }
+
+    static Stream<PluginTaskQueue> queues() {
+        return Stream.of(PluginTaskQueue.heap(), PluginTaskQueue.timingWheel());
+    }
+
+    private record NanosTimeSource(AtomicLong nanos) implements PluginTimeSource {
+
+        @Override
+        public long getCurrentTicks() {
+            return MindustryTimeUnit.TICKS.convert(this.nanos.get(), MindustryTimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public long getCurrentNanos() {
+            return this.nanos.get();
+        }
+    }
+}